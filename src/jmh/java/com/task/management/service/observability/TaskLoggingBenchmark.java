@@ -0,0 +1,117 @@
+package com.task.management.service.observability;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.task.management.service.models.UserTask;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the logging cost of a task write and of a rejected token before and after sampling,
+ * guarded arguments and rate limiting. Events are formatted and written to a discarding stream,
+ * so the gc profiler's alloc.rate.norm is the allocation per logged request.
+ * Run with {@code gradle jmh -Pjmh.includes=TaskLoggingBenchmark}; for a JFR view add
+ * {@code -XX:StartFlightRecording} to the fork and compare the jdk.ObjectAllocationSample events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskLoggingBenchmark {
+
+    private static final String LOGGER = "com.task.management.service.service.impl.UserTaskServiceImpl";
+
+    private Logger plain;
+    private Logger sampled;
+    private UserTask task;
+    private Exception tokenFailure;
+    private LogRateLimiter failureLog;
+
+    @Setup
+    public void setUp() {
+        plain = newContext(false).getLogger(LOGGER);
+        sampled = newContext(true).getLogger(LOGGER);
+
+        task = new UserTask();
+        task.setId("64b7f0c2a1b2c3d4e5f60718");
+        task.setUserId("64b7f0c2a1b2c3d4e5f60001");
+        task.setTitle("Quarterly report");
+        task.setDescription("x".repeat(2000));
+        task.setDueDate(LocalDate.of(2026, 1, 31));
+        task.setStatus("pending");
+
+        tokenFailure = new IllegalStateException("JWT signature does not match");
+        failureLog = new LogRateLimiter(Duration.ofSeconds(10));
+    }
+
+    /**
+     * Previous createTask line: the whole task, description included, on every write.
+     */
+    @Benchmark
+    public void createLegacy() {
+        plain.info("Creating task: {}", task);
+    }
+
+    @Benchmark
+    public void create() {
+        plain.info("Creating task for user: {}", task.getUserId());
+    }
+
+    /**
+     * The async-logging profile under load: past the per-second burst only one in a hundred lines is formatted.
+     */
+    @Benchmark
+    public void createSampled() {
+        sampled.info("Creating task for user: {}", task.getUserId());
+    }
+
+    /**
+     * Previous AuthTokenFilter line: a stack trace per rejected token.
+     */
+    @Benchmark
+    public void tokenFailureLegacy() {
+        plain.error("Cannot set user authentication: {}", tokenFailure);
+    }
+
+    @Benchmark
+    public void tokenFailureRateLimited() {
+        long suppressed = failureLog.acquire();
+        if (suppressed >= 0) {
+            plain.error("Cannot set user authentication: {} ({} failures suppressed)", tokenFailure.toString(), suppressed);
+        }
+    }
+
+    private static LoggerContext newContext(boolean sample) {
+        LoggerContext context = new LoggerContext();
+        if (sample) {
+            SampledInfoFilter filter = new SampledInfoFilter();
+            filter.setContext(context);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %level [%thread] %logger{36} - %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.addAppender(appender);
+        return context;
+    }
+}
@@ -0,0 +1,54 @@
+package com.task.management.service.security.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a login attempt turned away by the rate limiter, and of one let through, under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoginRateLimiterBenchmark {
+
+    private LoginRateLimiter exhausted;
+    private LoginRateLimiter generous;
+
+    @Setup
+    public void setUp() {
+        exhausted = newLimiter(1, 1);
+        while (exhausted.tryAcquire("203.0.113.7", "victim@example.com") == 0) {
+            // Drain the bucket so every measured attempt is rejected
+        }
+        generous = newLimiter(Integer.MAX_VALUE / 2, 600_000_000);
+    }
+
+    @Benchmark
+    public long rejected() {
+        return exhausted.tryAcquire("203.0.113.7", "victim@example.com");
+    }
+
+    @Benchmark
+    public long allowed() {
+        return generous.tryAcquire("203.0.113.7", "Someone.Else@Example.com");
+    }
+
+    private static LoginRateLimiter newLimiter(int burst, int perMinute) {
+        LoginRateLimiter limiter = new LoginRateLimiter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "slots", 65536);
+        ReflectionTestUtils.setField(limiter, "ipBurst", burst);
+        ReflectionTestUtils.setField(limiter, "ipPerMinute", perMinute);
+        ReflectionTestUtils.setField(limiter, "emailBurst", burst);
+        ReflectionTestUtils.setField(limiter, "emailPerMinute", perMinute);
+        limiter.init();
+        return limiter;
+    }
+}
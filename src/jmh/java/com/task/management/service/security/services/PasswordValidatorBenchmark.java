@@ -0,0 +1,37 @@
+package com.task.management.service.security.services;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signup password validation. The pattern is a chain of lookaheads, so the long rejected input
+ * shows how the cost grows with length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordValidatorBenchmark {
+
+    private final String valid = "Sup3r$ecret";
+    private final String tooShort = "Ab1$";
+    private final String longInvalid = "a".repeat(256); // No upper case, digit or symbol: every lookahead scans it all
+
+    @Benchmark
+    public boolean valid() {
+        return PasswordValidator.validate(valid);
+    }
+
+    @Benchmark
+    public boolean tooShort() {
+        return PasswordValidator.validate(tooShort);
+    }
+
+    @Benchmark
+    public boolean longInvalid() {
+        return PasswordValidator.validate(longInvalid);
+    }
+}
@@ -0,0 +1,44 @@
+package com.task.management.service.security.services;
+
+import com.task.management.service.models.Role;
+import com.task.management.service.models.User;
+import com.task.management.service.models.UserRoles;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Principal construction: from a loaded user (database lookup path) and from token claims
+ * (stateless path).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDetailsImplBenchmark {
+
+    private User user;
+    private List<String> roles;
+
+    @Setup
+    public void setUp() {
+        user = new User("bench-user", "bench@example.com", "$2a$10$abcdefghijklmnopqrstuv");
+        user.setId("64b7f0c2a1b2c3d4e5f60001");
+        user.setRoles(Set.of(new Role(UserRoles.ROLE_USER), new Role(UserRoles.ROLE_MODERATOR)));
+        roles = List.of(UserRoles.ROLE_USER.name(), UserRoles.ROLE_MODERATOR.name());
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildFromUser() {
+        return UserDetailsImpl.build(user);
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildFromClaims() {
+        return UserDetailsImpl.build(user.getId(), user.getUsername(), roles);
+    }
+}
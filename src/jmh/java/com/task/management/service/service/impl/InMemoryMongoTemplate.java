@@ -0,0 +1,48 @@
+package com.task.management.service.service.impl;
+
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * MongoTemplate that acknowledges the writes the service makes around every task write (outbox
+ * events, the collection stamp and its in-flight mark) without a server. The documents are still built by the service,
+ * so their cost stays in the measurement; only the round trip is left out.
+ */
+final class InMemoryMongoTemplate extends MongoTemplate {
+
+    InMemoryMongoTemplate() {
+        super(detachedFactory(), new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+    }
+
+    @Override
+    public <T> Collection<T> insert(Collection<? extends T> batchToSave, Class<?> entityClass) {
+        return new ArrayList<>(batchToSave);
+    }
+
+    @Override
+    public UpdateResult upsert(Query query, UpdateDefinition update, String collectionName) {
+        return UpdateResult.acknowledged(1, 1L, null);
+    }
+
+    private static MongoDatabaseFactory detachedFactory() {
+        MongoExceptionTranslator translator = new MongoExceptionTranslator();
+        return (MongoDatabaseFactory) Proxy.newProxyInstance(MongoDatabaseFactory.class.getClassLoader(),
+                new Class<?>[]{MongoDatabaseFactory.class}, (proxy, method, args) -> {
+                    if ("getExceptionTranslator".equals(method.getName())) {
+                        return translator;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,84 @@
+package com.task.management.service.service.impl;
+
+import com.task.management.service.models.UserTask;
+import com.task.management.service.repository.TaskRepository;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * TaskRepository fake backed by a sorted map, so service benchmarks measure the service and not
+ * Mongo. Only the methods the benchmarks reach are implemented; the rest throw.
+ */
+final class InMemoryTaskRepository {
+
+    private final Map<String, UserTask> tasks = new TreeMap<>(); // Id order, like the default sort
+
+    static TaskRepository create() {
+        InMemoryTaskRepository store = new InMemoryTaskRepository();
+        return (TaskRepository) Proxy.newProxyInstance(TaskRepository.class.getClassLoader(),
+                new Class<?>[]{TaskRepository.class}, (proxy, method, args) -> store.invoke(method, args));
+    }
+
+    private Object invoke(Method method, Object[] args) {
+        int arity = args == null ? 0 : args.length;
+        switch (method.getName() + "/" + arity) {
+            case "save/1":
+                return save((UserTask) args[0]);
+            case "findById/1":
+                return Optional.ofNullable(tasks.get((String) args[0]));
+            case "findByUserId/1":
+                return find((String) args[0], null);
+            case "findByUserId/2":
+                return page(find((String) args[0], null), (Pageable) args[1]);
+            case "findByUserIdAndStatus/3":
+                return page(find((String) args[0], (String) args[1]), (Pageable) args[2]);
+            case "count/0":
+                return (long) tasks.size();
+            case "deleteAll/0":
+                tasks.clear();
+                return null;
+            case "toString/0":
+                return "InMemoryTaskRepository";
+            case "hashCode/0":
+                return System.identityHashCode(this);
+            case "equals/1":
+                return false;
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private UserTask save(UserTask task) {
+        if (task.getId() == null) {
+            task.setId(new ObjectId().toHexString());
+            task.setVersion(0L);
+        } else {
+            task.setVersion(task.getVersion() == null ? 0L : task.getVersion() + 1);
+        }
+        tasks.put(task.getId(), task);
+        return task;
+    }
+
+    private List<UserTask> find(String userId, String status) {
+        return tasks.values().stream()
+                .filter(task -> userId.equals(task.getUserId()))
+                .filter(task -> status == null || status.equals(task.getStatus()))
+                .collect(Collectors.toList());
+    }
+
+    private static Page<UserTask> page(List<UserTask> matches, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+}
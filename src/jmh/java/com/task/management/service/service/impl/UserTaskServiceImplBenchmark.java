@@ -0,0 +1,117 @@
+package com.task.management.service.service.impl;
+
+import com.task.management.service.models.UserTask;
+import com.task.management.service.service.TaskChangeFeed;
+import com.task.management.service.service.TaskPageCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer overhead of the hot task operations (validation, page cache, change events and
+ * outbox documents) against in-memory fakes of the repository and template.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserTaskServiceImplBenchmark {
+
+    private static final String USER_ID = "64b7f0c2a1b2c3d4e5f60001";
+    private static final String CREATE_ID = "64b7f0c2a1b2c3d4e5f6ffff";
+    private static final int SEEDED_TASKS = 100;
+
+    private UserTaskServiceImpl service;
+    private TaskPageCache pageCache;
+    private TaskChangeFeed changeFeed;
+    private InMemoryMongoTemplate mongoTemplate;
+    private Pageable firstPage;
+    private String knownId;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pageCache = new TaskPageCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pageCache, "maxUsers", 10000);
+        ReflectionTestUtils.setField(pageCache, "maxPagesPerUser", 32);
+        ReflectionTestUtils.setField(pageCache, "ttlMs", 30000L);
+
+        changeFeed = new TaskChangeFeed();
+        ReflectionTestUtils.setField(changeFeed, "bufferSize", 256);
+        ReflectionTestUtils.setField(changeFeed, "replaySize", 100);
+        ReflectionTestUtils.setField(changeFeed, "heartbeatMs", 15000L);
+        ReflectionTestUtils.setField(changeFeed, "emitterTimeoutMs", 1800000L);
+        ReflectionTestUtils.setField(changeFeed, "deliveryThreads", 1);
+        changeFeed.start();
+
+        mongoTemplate = new InMemoryMongoTemplate();
+        service = new UserTaskServiceImpl();
+        ReflectionTestUtils.setField(service, "taskRepository", InMemoryTaskRepository.create());
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "pageCache", pageCache);
+        ReflectionTestUtils.setField(service, "changeFeed", changeFeed);
+        ReflectionTestUtils.setField(service, "bulkChunkSize", 1000);
+        ReflectionTestUtils.setField(service, "statsCountersEnabled", true);
+        ReflectionTestUtils.setField(service, "statsZone", ZoneOffset.UTC);
+        ReflectionTestUtils.setField(service, "outboxEnabled", true);
+
+        for (int i = 0; i < SEEDED_TASKS; i++) {
+            knownId = service.createTask(newTask(i)).getId();
+        }
+        firstPage = PageRequest.of(0, 20);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        changeFeed.stop();
+    }
+
+    /**
+     * Saves under one fixed id, so the store does not grow with the invocation count; the service path is
+     * the same as for a new task.
+     */
+    @Benchmark
+    public UserTask createTask() {
+        UserTask task = newTask(0);
+        task.setId(CREATE_ID);
+        return service.createTask(task);
+    }
+
+    @Benchmark
+    public Optional<UserTask> getTaskById() {
+        return service.getTaskById(knownId);
+    }
+
+    @Benchmark
+    public Page<UserTask> getTasksCached() {
+        return service.getTasksByUserId(USER_ID, firstPage);
+    }
+
+    /**
+     * Every call misses the page cache, as the first read after a write does.
+     */
+    @Benchmark
+    public Page<UserTask> getTasksUncached() {
+        pageCache.invalidate(USER_ID);
+        return service.getTasksByUserId(USER_ID, firstPage);
+    }
+
+    private static UserTask newTask(int i) {
+        UserTask task = new UserTask();
+        task.setUserId(USER_ID);
+        task.setTitle("Task " + i);
+        task.setDescription("Benchmark task");
+        task.setDueDate(LocalDate.of(2026, 1, 1).plusDays(i % 365));
+        task.setStatus("pending");
+        return task;
+    }
+}
@@ -0,0 +1,121 @@
+package com.task.management.service.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal client of the task API. Calls return the raw response; timing and error counting are
+ * left to the caller.
+ */
+final class ApiClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+
+    ApiClient(int port, int threads) {
+        this("http://127.0.0.1:" + port, threads);
+    }
+
+    ApiClient(String baseUrl, int threads) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1) // Tomcat serves h2c only when configured; keep connections simple
+                .connectTimeout(TIMEOUT)
+                .executor(Executors.newFixedThreadPool(Math.max(2, threads / 4), runnable -> {
+                    Thread thread = new Thread(runnable, "loadtest-http");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+    }
+
+    HttpResponse<byte[]> signup(String username, String email, String password) throws IOException, InterruptedException {
+        return send(post("/api/auth/signup", null, Map.of("username", username, "email", email, "password", password)));
+    }
+
+    HttpResponse<byte[]> login(String email, String password) throws IOException, InterruptedException {
+        return send(post("/api/auth/login", null, Map.of("email", email, "password", password)));
+    }
+
+    HttpResponse<byte[]> list(String token, int page, int size) throws IOException, InterruptedException {
+        return send(request("/api/task/get-all-tasks?page=" + page + "&size=" + size, token).GET().build());
+    }
+
+    HttpResponse<byte[]> create(String token, String title, LocalDate dueDate) throws IOException, InterruptedException {
+        return send(post("/api/task/create", token, task(title, dueDate)));
+    }
+
+    HttpResponse<byte[]> createBulk(String token, List<Map<String, Object>> tasks) throws IOException, InterruptedException {
+        return send(post("/api/task/bulk", token, tasks));
+    }
+
+    HttpResponse<byte[]> updateStatus(String token, String taskId, String status) throws IOException, InterruptedException {
+        return send(request("/api/task/update/" + taskId, token)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(Map.of("status", status))))
+                .build());
+    }
+
+    HttpResponse<byte[]> delete(String token, String taskId) throws IOException, InterruptedException {
+        return send(request("/api/task/delete-task/" + taskId, token).DELETE().build());
+    }
+
+    static Map<String, Object> task(String title, LocalDate dueDate) {
+        return Map.of("title", title, "description", "Load test task", "dueDate", dueDate.toString(), "status", "pending");
+    }
+
+    JsonNode json(HttpResponse<byte[]> response) throws IOException {
+        return mapper.readTree(response.body());
+    }
+
+    /**
+     * Ids of the created tasks in a bulk response.
+     */
+    List<String> createdIds(HttpResponse<byte[]> response) throws IOException {
+        List<Map<String, Object>> items = mapper.readValue(response.body(), new TypeReference<>() {
+        });
+        List<String> ids = new ArrayList<>(items.size());
+        for (Map<String, Object> item : items) {
+            Object id = item.get("id");
+            if (id != null) {
+                ids.add(id.toString());
+            }
+        }
+        return ids;
+    }
+
+    private HttpRequest post(String path, String token, Object body) throws IOException {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
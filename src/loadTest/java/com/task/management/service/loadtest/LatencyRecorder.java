@@ -0,0 +1,59 @@
+package com.task.management.service.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Latencies of one worker thread, kept in full so percentiles are exact. Workers record into their
+ * own recorder without locking; the recorders are merged once the run is over.
+ */
+final class LatencyRecorder {
+
+    private final Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+
+    void record(Operation operation, long nanos, boolean ok) {
+        Samples bucket = samples.computeIfAbsent(operation, key -> new Samples());
+        bucket.add(nanos);
+        if (!ok) {
+            bucket.errors++;
+        }
+    }
+
+    void mergeInto(Map<Operation, Samples> totals) {
+        samples.forEach((operation, bucket) -> totals.computeIfAbsent(operation, key -> new Samples()).addAll(bucket));
+    }
+
+    static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        long errors;
+
+        void add(long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i]);
+            }
+            errors += other.errors;
+        }
+
+        int count() {
+            return size;
+        }
+
+        /**
+         * Sorted copy of the samples, in nanoseconds.
+         */
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
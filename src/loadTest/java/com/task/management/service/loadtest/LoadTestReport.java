@@ -0,0 +1,113 @@
+package com.task.management.service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.task.management.service.loadtest.LatencyRecorder.Samples;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles per endpoint, printed as a table and written as JSON so runs
+ * can be compared.
+ */
+final class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestSettings settings;
+    private final List<Map<String, Object>> endpoints = new ArrayList<>();
+    private long totalCount;
+    private long totalErrors;
+
+    LoadTestReport(LoadTestSettings settings, Map<Operation, Samples> samples) {
+        this.settings = settings;
+        samples.forEach((operation, bucket) -> {
+            long[] sorted = bucket.sorted();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("operation", operation.key);
+            row.put("endpoint", operation.endpoint);
+            row.put("count", sorted.length);
+            row.put("errors", bucket.errors);
+            row.put("throughputPerSecond", round((double) sorted.length / settings.durationSeconds));
+            for (double percentile : PERCENTILES) {
+                row.put("p" + format(percentile) + "Ms", millis(percentile(sorted, percentile)));
+            }
+            row.put("maxMs", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+            endpoints.add(row);
+            totalCount += sorted.length;
+            totalErrors += bucket.errors;
+        });
+    }
+
+    void print(PrintStream out) {
+        out.printf("%nLoad test: %d users x %d tasks, %d threads, %d s measured after %d s warmup, profiles [%s], %s%n",
+                settings.users, settings.tasksPerUser, settings.threads, settings.durationSeconds, settings.warmupSeconds,
+                settings.profiles, settings.baseUrl != null ? "against " + settings.baseUrl : "in-process");
+        out.printf("%-36s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map<String, Object> row : endpoints) {
+            out.printf("%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    row.get("endpoint"), row.get("count"), row.get("errors"), row.get("throughputPerSecond"),
+                    row.get("p50Ms"), row.get("p90Ms"), row.get("p99Ms"), row.get("p99.9Ms"), row.get("maxMs"));
+        }
+        out.printf("%-36s %9d %7d %9.1f%n", "total", totalCount, totalErrors,
+                round((double) totalCount / settings.durationSeconds));
+    }
+
+    Path write() throws IOException {
+        Map<String, Object> settingsJson = new LinkedHashMap<>();
+        settingsJson.put("users", settings.users);
+        settingsJson.put("tasksPerUser", settings.tasksPerUser);
+        settingsJson.put("threads", settings.threads);
+        settingsJson.put("warmupSeconds", settings.warmupSeconds);
+        settingsJson.put("durationSeconds", settings.durationSeconds);
+        settingsJson.put("mix", settings.mix);
+        settingsJson.put("profiles", settings.profiles);
+        settingsJson.put("baseUrl", settings.baseUrl != null ? settings.baseUrl : "in-process");
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settingsJson);
+        report.put("totalCount", totalCount);
+        report.put("totalErrors", totalErrors);
+        report.put("throughputPerSecond", round((double) totalCount / settings.durationSeconds));
+        report.put("endpoints", endpoints);
+
+        Path path = Paths.get(settings.reportFile);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+        return path;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted samples.
+     */
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,202 @@
+package com.task.management.service.loadtest;
+
+import com.task.management.service.TaskManagementServiceApplication;
+import com.task.management.service.loadtest.Workload.VirtualUser;
+import com.task.management.service.models.Role;
+import com.task.management.service.models.User;
+import com.task.management.service.models.UserRoles;
+import com.task.management.service.models.UserTask;
+import com.task.management.service.repository.RoleRepository;
+import com.task.management.service.repository.UserRepository;
+import com.task.management.service.security.jwt.JwtUtils;
+import com.task.management.service.security.services.RoleRegistry;
+import com.task.management.service.security.services.UserDetailsImpl;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Boots the service in-process against a throwaway local mongod (or an existing database), seeds
+ * users and tasks through the API (directly for the reactive deployment) and runs the mixed
+ * workload. With {@code loadtest.baseUrl} it boots nothing and loads an already running servlet
+ * deployment instead, seeding through its API. Run with {@code gradle loadTest}; see the task in
+ * build.gradle for the parameters.
+ */
+public final class LoadTestRunner {
+
+    private static final String PASSWORD = "Load$test1";
+    private static final int SEED_CHUNK = 500;
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        if (settings.baseUrl != null) {
+            // Client and server no longer share a JVM; the server's database must already hold the roles
+            System.out.println("Loading the service at " + settings.baseUrl);
+            ApiClient api = new ApiClient(settings.baseUrl, settings.threads);
+            run(settings, api, username -> seedUser(api, settings, username));
+            return;
+        }
+
+        try (LocalMongod mongod = settings.mongoUri == null ? LocalMongod.start(settings.mongod) : null) {
+            String mongoUri = mongod != null ? mongod.uri("loadtest") : settings.mongoUri;
+            SpringApplicationBuilder builder = new SpringApplicationBuilder(TaskManagementServiceApplication.class)
+                    .properties(
+                            "server.port=0",
+                            "spring.data.mongodb.uri=" + mongoUri,
+                            "logging.level.com.task.management.service=" + settings.logLevel,
+                            // Every virtual user logs in from this one address; -PloadTestLoginRateLimit=true measures the limiter
+                            "loginRateLimitEnabled=" + settings.loginRateLimit,
+                            "server.tomcat.threads.max=" + Math.max(200, settings.threads * 2));
+            if (!settings.profiles.isEmpty()) {
+                builder.profiles(settings.profiles.split(","));
+            }
+            try (ConfigurableApplicationContext app = builder.run(args)) {
+                seedRoles(app);
+                int port = app.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                ApiClient api = new ApiClient(port, settings.threads);
+                run(settings, api, settings.reactive()
+                        ? username -> seedUserDirectly(app, settings, username)
+                        : username -> seedUser(api, settings, username));
+            }
+        }
+    }
+
+    private static void run(LoadTestSettings settings, ApiClient api, Seeder seeder) throws Exception {
+        long seedStart = System.nanoTime();
+        List<VirtualUser> users = seedUsers(settings, seeder);
+        System.out.printf("Seeded %d users x %d tasks in %.1f s%n", users.size(), settings.tasksPerUser,
+                (System.nanoTime() - seedStart) / 1e9);
+
+        LoadTestReport report = new LoadTestReport(settings, new Workload(api, settings, users).run());
+        report.print(System.out);
+        Path path = report.write();
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+
+    /**
+     * Signup needs the role documents; a fresh database has none.
+     */
+    private static void seedRoles(ConfigurableApplicationContext app) {
+        RoleRepository roles = app.getBean(RoleRepository.class);
+        for (UserRoles name : UserRoles.values()) {
+            if (roles.findByName(name).isEmpty()) {
+                roles.save(new Role(name));
+            }
+        }
+        app.getBean(RoleRegistry.class).load();
+    }
+
+    /**
+     * Seeds every user in parallel. Usernames carry a run id, so repeated runs against the same
+     * database do not collide.
+     */
+    private static List<VirtualUser> seedUsers(LoadTestSettings settings, Seeder seeder) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(settings.threads, 16));
+        try {
+            List<Future<VirtualUser>> futures = new ArrayList<>();
+            for (int i = 0; i < settings.users; i++) {
+                String username = "lt" + runId + "u" + i;
+                futures.add(pool.submit(() -> seeder.seed(username)));
+            }
+
+            List<VirtualUser> users = new ArrayList<>(futures.size());
+            for (Future<VirtualUser> future : futures) {
+                users.add(future.get());
+            }
+            return Collections.unmodifiableList(users);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Signs up and logs in through the API and bulk-creates the user's tasks.
+     */
+    private static VirtualUser seedUser(ApiClient api, LoadTestSettings settings, String username) throws Exception {
+        String email = username + "@loadtest.local";
+        expectOk(api.signup(username, email, PASSWORD), "signup of " + username);
+
+        VirtualUser user = new VirtualUser(email, PASSWORD);
+        HttpResponse<byte[]> login = expectOk(api.login(email, PASSWORD), "login of " + username);
+        user.token = api.json(login).path("accessToken").asText();
+
+        for (int from = 0; from < settings.tasksPerUser; from += SEED_CHUNK) {
+            int to = Math.min(from + SEED_CHUNK, settings.tasksPerUser);
+            List<Map<String, Object>> chunk = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                chunk.add(ApiClient.task("Seed task " + i, LocalDate.now().plusDays(i % 90)));
+            }
+            user.addTasks(api.createdIds(expectOk(api.createBulk(user.token, chunk), "task seeding of " + username)));
+        }
+        return user;
+    }
+
+    /**
+     * The reactive deployment serves no signup, login or bulk create, so the user is stored and its
+     * token signed in-process the way a login would sign it, and its tasks are inserted directly.
+     */
+    private static VirtualUser seedUserDirectly(ConfigurableApplicationContext app, LoadTestSettings settings,
+                                                String username) {
+        User user = new User(username, username + "@loadtest.local", "!"); // No valid hash: never logs in
+        user.setRoles(Set.of(app.getBean(RoleRegistry.class).get(UserRoles.ROLE_USER)));
+        user = app.getBean(UserRepository.class).save(user);
+
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        VirtualUser virtualUser = new VirtualUser(user.getEmail(), null);
+        virtualUser.token = app.getBean(JwtUtils.class).generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        MongoTemplate mongoTemplate = app.getBean(MongoTemplate.class);
+        for (int from = 0; from < settings.tasksPerUser; from += SEED_CHUNK) {
+            int to = Math.min(from + SEED_CHUNK, settings.tasksPerUser);
+            List<UserTask> chunk = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                UserTask task = new UserTask();
+                task.setUserId(username);
+                task.setTitle("Seed task " + i);
+                task.setDescription("Load test task");
+                task.setDueDate(LocalDate.now().plusDays(i % 90));
+                task.setStatus("pending");
+                task.setVersion(0L);
+                task.setLastModified(Instant.now());
+                chunk.add(task);
+            }
+            for (UserTask task : mongoTemplate.insert(chunk, UserTask.class)) {
+                virtualUser.addTask(task.getId());
+            }
+        }
+        return virtualUser;
+    }
+
+    private static HttpResponse<byte[]> expectOk(HttpResponse<byte[]> response, String what) {
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(what + " failed with " + response.statusCode() + ": "
+                    + new String(response.body()));
+        }
+        return response;
+    }
+
+    @FunctionalInterface
+    private interface Seeder {
+        VirtualUser seed(String username) throws Exception;
+    }
+}
@@ -0,0 +1,84 @@
+package com.task.management.service.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties (set by the Gradle task
+ * from {@code -PloadTest*} project properties).
+ */
+final class LoadTestSettings {
+
+    final int users;
+    final int tasksPerUser;
+    final int threads;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final String mongod; // mongod binary to start, used unless mongoUri is set
+    final String mongoUri; // Existing database to run against instead
+    final String baseUrl; // Already running service to load instead of booting one in-process
+    final String logLevel;
+    final String profiles; // spring.profiles.active of the service, empty for the default servlet deployment; only a label with baseUrl
+    final boolean loginRateLimit;
+    final String reportFile;
+    final Map<Operation, Integer> mix;
+
+    private LoadTestSettings() {
+        users = Integer.getInteger("loadtest.users", 50);
+        tasksPerUser = Integer.getInteger("loadtest.tasksPerUser", 200);
+        threads = Integer.getInteger("loadtest.threads", 32);
+        warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 15);
+        durationSeconds = Integer.getInteger("loadtest.durationSeconds", 60);
+        mongod = System.getProperty("loadtest.mongod", "mongod");
+        mongoUri = System.getProperty("loadtest.mongoUri");
+        baseUrl = System.getProperty("loadtest.baseUrl");
+        logLevel = System.getProperty("loadtest.logLevel", "WARN");
+        profiles = System.getProperty("loadtest.profiles", "");
+        loginRateLimit = Boolean.getBoolean("loadtest.loginRateLimit");
+        reportFile = System.getProperty("loadtest.reportFile", "build/reports/loadtest/results.json");
+        mix = parseMix(System.getProperty("loadtest.mix", "login=5,list=50,create=20,status=15,delete=10"));
+        if (baseUrl != null && reactive()) {
+            // Its users can only be seeded in-process, see LoadTestRunner
+            throw new IllegalArgumentException("loadtest.baseUrl does not support the reactive deployment");
+        }
+        if (reactive() && mix.remove(Operation.LOGIN) != null) {
+            System.out.println("The reactive deployment serves no login; dropped login from the mix");
+            if (mix.isEmpty()) {
+                throw new IllegalArgumentException("loadtest.mix selects no operation the reactive deployment serves");
+            }
+        }
+    }
+
+    /**
+     * Whether the service runs the WebFlux deployment, which serves no signup or login.
+     */
+    boolean reactive() {
+        return Arrays.asList(profiles.split(",")).contains("reactive");
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings();
+    }
+
+    /**
+     * Parses "name=weight,..." into relative weights; operations left out are not run.
+     */
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.named(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix selects no operation");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,95 @@
+package com.task.management.service.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A throwaway mongod on a free local port with its data in a temporary directory, removed on close.
+ * It uses the locally installed binary, so nothing is downloaded and the run works offline.
+ */
+final class LocalMongod implements AutoCloseable {
+
+    private static final long STARTUP_TIMEOUT_MS = 30_000;
+
+    private final Process process;
+    private final Path dataDir;
+    private final int port;
+
+    private LocalMongod(Process process, Path dataDir, int port) {
+        this.process = process;
+        this.dataDir = dataDir;
+        this.port = port;
+    }
+
+    static LocalMongod start(String binary) throws IOException, InterruptedException {
+        Path dataDir = Files.createTempDirectory("loadtest-mongod");
+        int port = freePort();
+        Process process;
+        try {
+            process = new ProcessBuilder(binary, "--dbpath", dataDir.toString(), "--port", String.valueOf(port),
+                    "--bind_ip", "127.0.0.1", "--quiet")
+                    .redirectErrorStream(true)
+                    .redirectOutput(dataDir.resolve("mongod.log").toFile())
+                    .start();
+        } catch (IOException e) {
+            delete(dataDir);
+            throw new IOException("Cannot start " + binary + "; install MongoDB or pass -PloadTestMongod=<path>"
+                    + " or -PloadTestMongoUri=<uri>", e);
+        }
+
+        LocalMongod mongod = new LocalMongod(process, dataDir, port);
+        mongod.awaitPort();
+        return mongod;
+    }
+
+    String uri(String database) {
+        return "mongodb://127.0.0.1:" + port + "/" + database;
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+        delete(dataDir);
+    }
+
+    private void awaitPort() throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("mongod exited with " + process.exitValue() + ", see "
+                        + dataDir.resolve("mongod.log"));
+            }
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("127.0.0.1", port), 200);
+                return;
+            } catch (IOException e) {
+                Thread.sleep(100); // Not listening yet
+            }
+        }
+        close();
+        throw new IOException("mongod did not listen on port " + port + " within " + STARTUP_TIMEOUT_MS + " ms");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
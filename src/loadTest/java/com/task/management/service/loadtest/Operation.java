@@ -0,0 +1,29 @@
+package com.task.management.service.loadtest;
+
+/**
+ * The requests of the mixed workload, reported per endpoint.
+ */
+enum Operation {
+    LOGIN("login", "POST /api/auth/login"),
+    LIST("list", "GET /api/task/get-all-tasks"),
+    CREATE("create", "POST /api/task/create"),
+    STATUS("status", "PUT /api/task/update/{taskId}"),
+    DELETE("delete", "DELETE /api/task/delete-task/{id}");
+
+    final String key;
+    final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    static Operation named(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
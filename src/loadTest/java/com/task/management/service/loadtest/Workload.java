@@ -0,0 +1,174 @@
+package com.task.management.service.loadtest;
+
+import com.task.management.service.loadtest.LatencyRecorder.Samples;
+
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop mixed workload: each worker picks a random seeded user and a weighted operation,
+ * sends it and immediately sends the next one. Requests during the warmup are sent but not recorded.
+ * Being closed-loop, latencies under saturation are understated (coordinated omission); compare
+ * runs at the same thread count.
+ */
+final class Workload {
+
+    private static final String[] STATUSES = {"pending", "in-progress", "completed"};
+
+    private final ApiClient api;
+    private final LoadTestSettings settings;
+    private final List<VirtualUser> users;
+    private final Operation[] wheel; // One slot per unit of weight
+
+    Workload(ApiClient api, LoadTestSettings settings, List<VirtualUser> users) {
+        this.api = api;
+        this.settings = settings;
+        this.users = users;
+
+        List<Operation> slots = new ArrayList<>();
+        settings.mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        this.wheel = slots.toArray(new Operation[0]);
+    }
+
+    /**
+     * Runs the workload and returns the merged samples of the measured period.
+     */
+    Map<Operation, Samples> run() throws InterruptedException {
+        long measureFrom = System.nanoTime() + settings.warmupSeconds * 1_000_000_000L;
+        long until = measureFrom + settings.durationSeconds * 1_000_000_000L;
+
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(settings.threads);
+        for (int i = 0; i < settings.threads; i++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            Thread worker = new Thread(() -> {
+                try {
+                    loop(recorder, measureFrom, until);
+                } finally {
+                    done.countDown();
+                }
+            }, "loadtest-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+
+        Map<Operation, Samples> totals = new EnumMap<>(Operation.class);
+        recorders.forEach(recorder -> recorder.mergeInto(totals));
+        return totals;
+    }
+
+    private void loop(LatencyRecorder recorder, long measureFrom, long until) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start;
+        while ((start = System.nanoTime()) < until) {
+            VirtualUser user = users.get(random.nextInt(users.size()));
+            Operation operation = wheel[random.nextInt(wheel.length)];
+            String taskId = null;
+            if (operation == Operation.STATUS) {
+                taskId = user.anyTask(random);
+            } else if (operation == Operation.DELETE) {
+                taskId = user.takeTask(random);
+            }
+            if ((operation == Operation.STATUS || operation == Operation.DELETE) && taskId == null) {
+                operation = Operation.CREATE; // Nothing left to change
+            }
+
+            boolean ok;
+            try {
+                ok = execute(operation, user, taskId, random);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                ok = false; // Connection errors and timeouts count as failed requests
+            }
+
+            if (start >= measureFrom) {
+                recorder.record(operation, System.nanoTime() - start, ok);
+            }
+        }
+    }
+
+    private boolean execute(Operation operation, VirtualUser user, String taskId, ThreadLocalRandom random)
+            throws Exception {
+        HttpResponse<byte[]> response;
+        switch (operation) {
+            case LOGIN:
+                response = api.login(user.email, user.password);
+                if (ok(response)) {
+                    user.token = api.json(response).path("accessToken").asText();
+                }
+                return ok(response);
+            case LIST:
+                return ok(api.list(user.token, random.nextInt(3), 20));
+            case CREATE:
+                response = api.create(user.token, "Task " + random.nextInt(1_000_000),
+                        LocalDate.now().plusDays(random.nextInt(60)));
+                if (ok(response)) {
+                    user.addTask(api.json(response).path("id").asText());
+                }
+                return ok(response);
+            case STATUS:
+                return ok(api.updateStatus(user.token, taskId, STATUSES[random.nextInt(STATUSES.length)]));
+            case DELETE:
+                return ok(api.delete(user.token, taskId));
+            default:
+                throw new IllegalStateException("Unknown operation: " + operation);
+        }
+    }
+
+    private static boolean ok(HttpResponse<byte[]> response) {
+        return response.statusCode() < 400;
+    }
+
+    /**
+     * A seeded user with its token and the ids of its tasks.
+     */
+    static final class VirtualUser {
+        final String email;
+        final String password;
+        volatile String token;
+        private final List<String> taskIds = new ArrayList<>();
+
+        VirtualUser(String email, String password) {
+            this.email = email;
+            this.password = password;
+        }
+
+        synchronized void addTask(String id) {
+            taskIds.add(id);
+        }
+
+        synchronized void addTasks(List<String> ids) {
+            taskIds.addAll(ids);
+        }
+
+        synchronized String anyTask(ThreadLocalRandom random) {
+            return taskIds.isEmpty() ? null : taskIds.get(random.nextInt(taskIds.size()));
+        }
+
+        /**
+         * Removes a random task id, swapping in the last one so removal stays O(1).
+         */
+        synchronized String takeTask(ThreadLocalRandom random) {
+            if (taskIds.isEmpty()) {
+                return null;
+            }
+            int index = random.nextInt(taskIds.size());
+            String last = taskIds.remove(taskIds.size() - 1);
+            return index == taskIds.size() ? last : taskIds.set(index, last);
+        }
+    }
+}
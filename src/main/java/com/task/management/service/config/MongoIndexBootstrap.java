@@ -0,0 +1,82 @@
+package com.task.management.service.config;
+
+import com.task.management.service.models.TaskOutboxEvent;
+import com.task.management.service.models.User;
+import com.task.management.service.models.UserTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the indexes declared on the entities and verifies that the live collections have them.
+ * Spring Boot no longer creates annotated indexes automatically, so without this step every task
+ * page request would be a collection scan.
+ */
+@Component
+public class MongoIndexBootstrap {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexBootstrap.class);
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(UserTask.class, User.class, TaskOutboxEvent.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${mongoIndexCreate:true}")
+    private boolean createIndexes;
+
+    @Value("${mongoIndexFailOnMissing:false}")
+    private boolean failOnMissing;
+
+    @PostConstruct
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        List<String> missing = new ArrayList<>();
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            String collection = mongoTemplate.getCollectionName(entity);
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            Set<String> existing = indexOps.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+
+            for (IndexDefinition index : resolver.resolveIndexFor(entity)) {
+                String name = index.getIndexOptions().getString("name");
+                if (existing.contains(name)) {
+                    continue;
+                }
+                if (createIndexes) {
+                    try {
+                        indexOps.ensureIndex(index);
+                        logger.info("Created index {}.{}", collection, name);
+                        continue;
+                    } catch (RuntimeException e) {
+                        logger.error("Cannot create index {}.{}: {}", collection, name, e.getMessage());
+                    }
+                }
+                missing.add(collection + "." + name);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            if (failOnMissing) {
+                throw new IllegalStateException("Missing MongoDB indexes: " + missing);
+            }
+            logger.warn("Missing MongoDB indexes: {}", missing);
+        }
+    }
+}
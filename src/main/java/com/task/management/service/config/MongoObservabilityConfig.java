@@ -0,0 +1,21 @@
+package com.task.management.service.config;
+
+import com.task.management.service.observability.SlowQueryTracker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the slow query tracker with both the blocking and the reactive Mongo client. The
+ * per-command latency timers are registered by Spring Boot itself.
+ */
+@Configuration
+public class MongoObservabilityConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "slowQueryTrackingEnabled", havingValue = "true", matchIfMissing = true)
+    public MongoClientSettingsBuilderCustomizer slowQueryTrackerCustomizer(SlowQueryTracker tracker) {
+        return builder -> builder.addCommandListener(tracker);
+    }
+}
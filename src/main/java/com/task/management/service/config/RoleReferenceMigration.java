@@ -0,0 +1,65 @@
+package com.task.management.service.config;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import com.task.management.service.models.Role;
+import com.task.management.service.models.User;
+import com.task.management.service.security.services.RoleRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rewrites user documents that still reference their roles through {@code DBRef}s into
+ * embedded role documents. Runs before the web server starts accepting requests, and is
+ * a no-op once every user has been migrated.
+ */
+@Component
+public class RoleReferenceMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleReferenceMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @PostConstruct
+    public void migrate() {
+        MongoCollection<Document> users = mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class));
+
+        int migrated = 0;
+        for (Document user : users.find(Filters.exists("roles.$ref")).projection(Projections.include("roles"))) {
+            List<Document> roles = new ArrayList<>();
+            for (Object reference : user.getList("roles", Object.class)) {
+                Object roleId = reference instanceof DBRef
+                        ? ((DBRef) reference).getId()
+                        : ((Document) reference).get("$id");
+                Role role = roleRegistry.findById(String.valueOf(roleId)).orElse(null);
+                if (role == null) {
+                    logger.warn("Dropping unknown role {} from user {}", roleId, user.get("_id"));
+                    continue;
+                }
+                roles.add(new Document("_id", roleId).append("name", role.getName().name()));
+            }
+
+            users.updateOne(Filters.eq("_id", user.get("_id")), Updates.set("roles", roles));
+            migrated++;
+        }
+
+        if (migrated > 0) {
+            logger.info("Embedded roles into {} user documents", migrated);
+        }
+    }
+}
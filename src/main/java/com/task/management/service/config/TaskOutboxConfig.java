@@ -0,0 +1,28 @@
+package com.task.management.service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Schedules the outbox dispatcher and, when {@code taskOutboxTransactional} is set, writes task
+ * mutations and their outbox events in one MongoDB transaction (requires a replica set).
+ */
+@Configuration
+@EnableScheduling
+public class TaskOutboxConfig {
+
+    /**
+     * Deliberately not a {@code PlatformTransactionManager} bean, so existing {@code @Transactional}
+     * methods do not start MongoDB transactions; only the task write paths use this template.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "taskOutboxTransactional", havingValue = "true")
+    public TransactionTemplate taskOutboxTransactionTemplate(MongoDatabaseFactory databaseFactory) {
+        return new TransactionTemplate(new MongoTransactionManager(databaseFactory));
+    }
+}
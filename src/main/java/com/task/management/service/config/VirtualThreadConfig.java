@@ -0,0 +1,64 @@
+package com.task.management.service.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves every servlet request on its own virtual thread instead of Tomcat's fixed worker pool,
+ * so requests parked on Mongo I/O no longer hold a platform thread. Requires a JDK 21 runtime;
+ * the code is compiled for Java 11, so the executor factory is looked up reflectively.
+ *
+ * <p>Not validated for production: Spring Boot 2.6 predates JDK 21, and both Tomcat 9 and the
+ * MongoDB driver of this Boot line hold monitors ({@code synchronized}) around some socket I/O,
+ * which pins the carrier thread for the duration of the call. Run the load test with
+ * {@code -PvirtualThreads} and check its output for pinned-thread traces before relying on it.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Value("${mongoMaxPoolSize:200}")
+    private int mongoMaxPoolSize;
+
+    @Value("${mongoMaxWaitMs:10000}")
+    private long mongoMaxWaitMs;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        logger.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Virtual threads remove the request thread limit, so the connection pool becomes the real
+     * concurrency limit; size it explicitly and fail waits quickly instead of queueing for minutes.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer virtualThreadMongoPoolCustomizer() {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(mongoMaxPoolSize)
+                .maxWaitTime(mongoMaxWaitMs, TimeUnit.MILLISECONDS));
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("The virtual-threads profile requires JDK 21 or newer, running on "
+                    + System.getProperty("java.version"), e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.task.management.service.controllers;
 
+import java.security.Principal;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -14,11 +15,16 @@ import com.task.management.service.payload.request.LoginRequest;
 import com.task.management.service.payload.request.SignupRequest;
 import com.task.management.service.payload.response.JwtResponse;
 import com.task.management.service.payload.response.MessageResponse;
-import com.task.management.service.repository.RoleRepository;
 import com.task.management.service.repository.UserRepository;
+import com.task.management.service.security.jwt.JwtRevocationList;
 import com.task.management.service.security.jwt.JwtUtils;
+import com.task.management.service.security.services.LoginRateLimiter;
+import com.task.management.service.security.services.RoleRegistry;
 import com.task.management.service.security.services.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -27,11 +33,13 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 @CrossOrigin(origins = "*", maxAge = 3600) // Allow cross-origin requests for all origins
 @RestController // Indicate that this class is a REST controller
 @RequestMapping("/api/auth") // Base URL for authentication-related endpoints
+@Profile("!reactive") // Login needs the blocking authentication manager of the servlet deployment
 public class AuthController {
 
 	@Autowired
@@ -41,7 +49,7 @@ public class AuthController {
 	UserRepository userRepository; // Repository for user-related database operations
 
 	@Autowired
-	RoleRepository roleRepository; // Repository for role-related database operations
+	RoleRegistry roleRegistry; // In-memory registry of the available roles
 
 	@Autowired
 	PasswordEncoder encoder; // Encoder for password hashing
@@ -49,14 +57,30 @@ public class AuthController {
 	@Autowired
 	JwtUtils jwtUtils; // Utility for generating JWT tokens
 
+	@Autowired
+	JwtRevocationList revocationList; // Revoked tokens of signed out users
+
+	@Autowired
+	LoginRateLimiter loginRateLimiter; // Throttles login attempts per address and email
+
 	/**
 	 * Authenticate user and return a JWT token if successful.
 	 *
 	 * @param loginRequest The login request containing username and password.
+	 * @param request The HTTP request, for the client address.
 	 * @return A ResponseEntity containing the JWT response or an error message.
 	 */
 	@PostMapping("/login")
-	public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+	public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+
+		// Throttle before any lookup or password verification, so rejected attempts stay cheap
+		long retryAfterSeconds = loginRateLimiter.tryAcquire(request.getRemoteAddr(), loginRequest.getEmail());
+		if (retryAfterSeconds > 0) {
+			return ResponseEntity
+					.status(HttpStatus.TOO_MANY_REQUESTS)
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+					.body(new MessageResponse("Error: Too many login attempts, try again later."));
+		}
 
 		// Check if the email is present
 		Optional<User> userModel = userRepository.findByEmail(loginRequest.getEmail());
@@ -124,27 +148,19 @@ public class AuthController {
 		Set<Role> roles = new HashSet<>(); // Initialize a set to hold the user roles
 
 		// Assign roles based on the request or default to user role
-		if (strRoles.isEmpty() || strRoles == null) {
-			Role userRole = roleRepository.findByName(UserRoles.ROLE_USER)
-					.orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-			roles.add(userRole);
+		if (strRoles == null || strRoles.isEmpty()) {
+			roles.add(roleRegistry.get(UserRoles.ROLE_USER));
 		} else {
 			strRoles.forEach(role -> {
 				switch (role) {
 					case "admin":
-						Role adminRole = roleRepository.findByName(UserRoles.ROLE_ADMIN)
-								.orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-						roles.add(adminRole);
+						roles.add(roleRegistry.get(UserRoles.ROLE_ADMIN));
 						break;
 					case "mod":
-						Role modRole = roleRepository.findByName(UserRoles.ROLE_MODERATOR)
-								.orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-						roles.add(modRole);
+						roles.add(roleRegistry.get(UserRoles.ROLE_MODERATOR));
 						break;
 					default:
-						Role userRole = roleRepository.findByName(UserRoles.ROLE_USER)
-								.orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-						roles.add(userRole);
+						roles.add(roleRegistry.get(UserRoles.ROLE_USER));
 				}
 			});
 		}
@@ -157,4 +173,26 @@ public class AuthController {
 		return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
 	}
 
+	/**
+	 * Sign out the current user by revoking every token issued to them so far.
+	 *
+	 * @param principal The authenticated user.
+	 * @return A ResponseEntity indicating success or error message.
+	 */
+	@PostMapping("/signout")
+	public ResponseEntity<?> logoutUser(Principal principal) {
+
+		// Only an authenticated user can sign out
+		if (principal == null) {
+			return ResponseEntity
+					.status(HttpStatus.UNAUTHORIZED)
+					.body(new MessageResponse("Error: Unauthorized"));
+		}
+
+		// Reject the user's current tokens until they expire
+		revocationList.revokeUser(principal.getName());
+
+		return ResponseEntity.ok(new MessageResponse("You've been signed out!"));
+	}
+
 }
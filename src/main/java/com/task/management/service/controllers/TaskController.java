@@ -1,43 +1,227 @@
 package com.task.management.service.controllers;
 
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.task.management.service.dto.TaskCursor;
+import com.task.management.service.dto.TaskSearchHit;
 import com.task.management.service.models.UserTask;
+import com.task.management.service.payload.response.CursorPage;
+import com.task.management.service.payload.response.TaskStats;
+import com.task.management.service.service.TaskChangeFeed;
+import com.task.management.service.service.TaskWriteResult;
 import com.task.management.service.service.UserTaskService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+@Slf4j
 @CrossOrigin(origins = "*", maxAge = 3600) // Allow cross-origin requests from any origin for 1 hour
 @RestController // Indicate that this class is a REST controller
 @RequestMapping("/api/task") // Base URL for task-related endpoints
+@Profile("!reactive") // Served by TaskRouter in the reactive deployment
 public class TaskController {
 
+    // Clients may keep responses but must revalidate them with their ETag before reuse
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private UserTaskService taskService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskChangeFeed changeFeed;
+
+    // Larger requested pages are cut down to this many tasks
+    @Value("${taskMaxPageSize:100}")
+    private int maxPageSize;
+
+    // Bulk requests with more items are rejected before anything is written
+    @Value("${taskBulkMaxItems:10000}")
+    private int maxBulkItems;
+
     @GetMapping("/get-all-tasks")
-    public Page<UserTask> getAllTasks(
+    public ResponseEntity<Page<?>> getAllTasks(
             @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "view", defaultValue = "full") String view,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "10") int size,
             @RequestParam(value = "sort", defaultValue = "dueDate") String sort,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             Principal principal
     ) {
-        Pageable pageable = PageRequest.of(page, size, org.springframework.data.domain.Sort.by(sort));
-        if (status != null) {
-            return taskService.getTasksByUserIdAndStatus(principal.getName(), status, pageable);
+        // Every list view of a user changes together, so one stamp covers all of them
+        boolean summary = "summary".equals(view);
+        if (!summary && !"full".equals(view) || page < 0 || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String eTag = eTag(taskService.getTaskCollectionVersion(principal.getName()));
+        if (matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+
+        Pageable pageable = PageRequest.of(page, Math.min(size, maxPageSize), org.springframework.data.domain.Sort.by(sort));
+        Page<?> tasks;
+        if (summary) {
+            // Only id, title, status and dueDate are read and sent
+            tasks = taskService.getTaskSummariesByUserId(principal.getName(), status, pageable);
+        } else if (status != null) {
+            tasks = taskService.getTasksByUserIdAndStatus(principal.getName(), status, pageable);
         } else {
-            return taskService.getTasksByUserId(principal.getName(), pageable);
+            tasks = taskService.getTasksByUserId(principal.getName(), pageable);
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(eTag).body(tasks);
+    }
+
+    @GetMapping("/get-all-tasks/seek")
+    public ResponseEntity<?> getAllTasksByCursor(
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "sort", defaultValue = "dueDate") String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            Principal principal
+    ) {
+        if (!TaskCursor.SORT_KEYS.contains(sort)) {
+            return ResponseEntity.badRequest().body("Sort must be one of " + TaskCursor.SORT_KEYS + ".");
+        }
+        if (size < 1) {
+            return ResponseEntity.badRequest().body("Size must be positive.");
+        }
+
+        Slice<UserTask> tasks;
+        try {
+            TaskCursor after = cursor != null ? TaskCursor.decode(cursor) : null;
+            tasks = taskService.getTasksByUserIdAfter(principal.getName(), status, sort, after, Math.min(size, maxPageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor.");
+        }
+
+        // The continuation token points just past the last task of this slice
+        String nextCursor = tasks.hasNext()
+                ? TaskCursor.after(sort, tasks.getContent().get(tasks.getNumberOfElements() - 1)).encode()
+                : null;
+        return ResponseEntity.ok(new CursorPage<>(tasks.getContent(), nextCursor, tasks.hasNext()));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTasks(
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            Principal principal
+    ) {
+        if (!StringUtils.hasText(query)) {
+            return ResponseEntity.badRequest().body("Query is required.");
+        }
+        if (size < 1) {
+            return ResponseEntity.badRequest().body("Size must be positive.");
+        }
+
+        Slice<TaskSearchHit> hits;
+        try {
+            TaskCursor after = cursor != null ? TaskCursor.decode(cursor) : null;
+            hits = taskService.searchTasks(principal.getName(), query, after, Math.min(size, maxPageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor.");
+        }
+
+        // Results are ordered by relevance, so the continuation token carries the last score
+        String nextCursor = hits.hasNext()
+                ? TaskCursor.after(hits.getContent().get(hits.getNumberOfElements() - 1)).encode()
+                : null;
+        return ResponseEntity.ok(new CursorPage<>(hits.getContent(), nextCursor, hits.hasNext()));
+    }
+
+    /**
+     * Server-Sent-Events stream of the changes to the user's tasks. Browsers reconnect on their own
+     * and send the Last-Event-ID header, for which the missed events are replayed when possible.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Principal principal
+    ) {
+        return changeFeed.subscribe(principal.getName(), lastEventId);
+    }
+
+    @GetMapping("/stats")
+    public TaskStats getTaskStats(Principal principal) {
+        return taskService.getTaskStats(principal.getName());
+    }
+
+    /**
+     * Streams all tasks of the user as NDJSON (default) or as one JSON array, one document at a
+     * time from a database cursor, so memory stays constant however many tasks the user has.
+     */
+    @GetMapping("/export")
+    public void exportTasks(
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            Principal principal,
+            HttpServletResponse response
+    ) throws IOException {
+        boolean ndjson = "ndjson".equals(format);
+        if (!ndjson && !"json".equals(format)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Format must be ndjson or json.");
+            return;
+        }
+
+        response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        ObjectWriter writer = objectMapper.writerFor(UserTask.class);
+        try (Stream<UserTask> tasks = taskService.streamTasksByUserId(principal.getName(), status)) {
+            OutputStream out = response.getOutputStream();
+            try (SequenceWriter sequence = ndjson
+                    ? writer.withRootValueSeparator("\n").writeValues(out)
+                    : writer.writeValuesAsArray(out)) {
+                Iterator<UserTask> iterator = tasks.iterator();
+                boolean empty = !iterator.hasNext();
+                while (iterator.hasNext()) {
+                    sequence.write(iterator.next());
+                }
+                if (ndjson && !empty) {
+                    sequence.flush();
+                    out.write('\n'); // Terminate the last line too
+                }
+            }
+        } catch (IOException e) {
+            // The client went away; closing the stream above already released the database cursor
+            log.info("Task export for user: {} aborted: {}", principal.getName(), e.getMessage());
         }
     }
 
@@ -50,57 +234,150 @@ public class TaskController {
         return taskService.createTask(task);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER') or " + // Require USER, MODERATOR, or ADMIN role
+            "hasRole('MODERATOR') or " +
+            "hasRole('ADMIN')")
+    public ResponseEntity<?> createTasks(InputStream body, Principal principal) {
+        List<UserTask> tasks;
+        try {
+            tasks = readJsonArray(body, UserTask.class);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Invalid JSON array body.");
+        }
+        if (tasks == null) {
+            return tooManyItems();
+        }
+        return ResponseEntity.ok(taskService.createTasks(principal.getName(), tasks));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('USER') or " + // Require USER, MODERATOR, or ADMIN role
+            "hasRole('MODERATOR') or " +
+            "hasRole('ADMIN')")
+    public ResponseEntity<?> createTasksFromNdjson(InputStream body, Principal principal) {
+        List<UserTask> tasks;
+        try {
+            tasks = readNdjson(body);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Invalid NDJSON body.");
+        }
+        if (tasks == null) {
+            return tooManyItems();
+        }
+        return ResponseEntity.ok(taskService.createTasks(principal.getName(), tasks));
+    }
+
+    @PutMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> updateTasks(InputStream body, Principal principal) {
+        List<UserTask> tasks;
+        try {
+            tasks = readJsonArray(body, UserTask.class);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Invalid JSON array body.");
+        }
+        if (tasks == null) {
+            return tooManyItems();
+        }
+        return ResponseEntity.ok(taskService.updateTasks(principal.getName(), tasks));
+    }
+
+    @PutMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> updateTasksFromNdjson(InputStream body, Principal principal) {
+        List<UserTask> tasks;
+        try {
+            tasks = readNdjson(body);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Invalid NDJSON body.");
+        }
+        if (tasks == null) {
+            return tooManyItems();
+        }
+        return ResponseEntity.ok(taskService.updateTasks(principal.getName(), tasks));
+    }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<?> deleteTasks(InputStream body, Principal principal) {
+        List<String> ids;
+        try {
+            ids = readJsonArray(body, String.class);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Invalid JSON array body.");
+        }
+        if (ids == null) {
+            return tooManyItems();
+        }
+        return ResponseEntity.ok(taskService.deleteTasks(principal.getName(), ids));
+    }
+
     @GetMapping("/getById/{id}")
-    public ResponseEntity<UserTask> getTaskById(@PathVariable String id, Principal principal) {
+    public ResponseEntity<UserTask> getTaskById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Principal principal
+    ) {
+        if (ifNoneMatch != null) {
+            // Compare against the stored version before loading the whole task
+            Optional<UserTask> current = taskService.getTaskVersion(id);
+            if (current.isPresent() && current.get().getUserId().equals(principal.getName())
+                    && current.get().getVersion() != null && matches(ifNoneMatch, eTag(current.get().getVersion()))) {
+                return notModified(eTag(current.get().getVersion()));
+            }
+        }
+
         Optional<UserTask> task = taskService.getTaskById(id);
         if (task.isPresent() && task.get().getUserId().equals(principal.getName())) {
-            return ResponseEntity.ok(task.get());
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(REVALIDATE);
+            if (task.get().getVersion() != null) {
+                response.eTag(eTag(task.get().getVersion()));
+            }
+            return response.body(task.get());
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/getByUserId/{userId}")
-    public ResponseEntity<List<UserTask>> getTasksByUserId(@PathVariable String userId, Principal principal) {
+    public ResponseEntity<List<UserTask>> getTasksByUserId(
+            @PathVariable String userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Principal principal
+    ) {
         // Ensure the userId matches the authenticated user
         if (!userId.equals(principal.getName())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
+        String eTag = eTag(taskService.getTaskCollectionVersion(userId));
+        if (matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+
         List<UserTask> tasks = taskService.getTasksByUserId(userId);
         if (tasks.isEmpty()) {
-            return ResponseEntity.noContent().build();
+            return ResponseEntity.noContent().eTag(eTag).build();
         }
 
-        return ResponseEntity.ok(tasks);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(eTag).body(tasks);
     }
 
     @PutMapping("/update-task/{id}")
     public ResponseEntity<UserTask> updateTask(@PathVariable String id, @RequestBody UserTask task, Principal principal) {
-        Optional<UserTask> existingTask = taskService.getTaskById(id);
-        if (existingTask.isPresent() && existingTask.get().getUserId().equals(principal.getName())) {
-            task.setId(id);
-            return ResponseEntity.ok(taskService.updateTask(id, task));
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+        TaskWriteResult result = taskService.updateTask(id, principal.getName(), task);
+        return ResponseEntity.status(statusOf(result, HttpStatus.OK)).body(result.getTask());
     }
 
     @DeleteMapping("/delete-task/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable String id, Principal principal) {
-        Optional<UserTask> existingTask = taskService.getTaskById(id);
-        if (existingTask.isPresent() && existingTask.get().getUserId().equals(principal.getName())) {
-            taskService.deleteTask(id);
-            return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+        TaskWriteResult result = taskService.deleteTask(id, principal.getName());
+        return ResponseEntity.status(statusOf(result, HttpStatus.NO_CONTENT)).build();
     }
     
     @PutMapping("/update/{taskId}")
     public ResponseEntity<?> updateTaskStatus(
             @PathVariable String taskId,
-            @RequestBody Map<String, String> requestBody
+            @RequestBody Map<String, String> requestBody,
+            Principal principal
     ) {
         String newStatus = requestBody.get("status");
         if (newStatus == null) {
@@ -108,7 +385,7 @@ public class TaskController {
         }
 
         // Update the task status in the database
-        boolean updated = taskService.updateTaskStatus(taskId, newStatus);
+        boolean updated = taskService.updateTaskStatus(taskId, principal.getName(), newStatus);
         if (updated) {
             return ResponseEntity.ok().body("Task status updated.");
         } else {
@@ -116,4 +393,95 @@ public class TaskController {
         }
     }
 
+    private static String eTag(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Weak comparison as required for If-None-Match: "W/" prefixes are ignored.
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).eTag(eTag).build();
+    }
+
+    private static HttpStatus statusOf(TaskWriteResult result, HttpStatus success) {
+        switch (result.getOutcome()) {
+            case OK:
+                return success;
+            case FORBIDDEN:
+                return HttpStatus.FORBIDDEN;
+            case CONFLICT:
+                return HttpStatus.CONFLICT;
+            default:
+                return HttpStatus.NOT_FOUND;
+        }
+    }
+
+    private ResponseEntity<String> tooManyItems() {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("At most " + maxBulkItems + " items per request.");
+    }
+
+    /**
+     * Reads one task per line straight from the request stream. Reading stops at the first task
+     * past taskBulkMaxItems, so neither the raw body nor an unbounded list is ever held.
+     *
+     * @return the tasks, or null if the body holds too many
+     * @throws IOException if a line is not a task
+     */
+    private List<UserTask> readNdjson(InputStream body) throws IOException {
+        List<UserTask> tasks = new ArrayList<>();
+        try (MappingIterator<UserTask> lines = objectMapper.readerFor(UserTask.class).readValues(body)) {
+            while (lines.hasNextValue()) {
+                if (tasks.size() == maxBulkItems) {
+                    return null;
+                }
+                tasks.add(lines.nextValue());
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Reads a JSON array one element at a time straight from the request stream, stopping at the
+     * first element past taskBulkMaxItems, as {@link #readNdjson} does for lines.
+     *
+     * @return the elements, or null if the array holds too many
+     * @throws IOException if the body is not an array of the given type
+     */
+    private <T> List<T> readJsonArray(InputStream body, Class<T> type) throws IOException {
+        List<T> items = new ArrayList<>();
+        ObjectReader reader = objectMapper.readerFor(type);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array");
+            }
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Unterminated JSON array");
+                }
+                if (items.size() == maxBulkItems) {
+                    return null;
+                }
+                items.add(reader.readValue(parser));
+            }
+        }
+        return items;
+    }
+
 }
@@ -0,0 +1,151 @@
+package com.task.management.service.controllers;
+
+
+import com.task.management.service.models.UserTask;
+import com.task.management.service.service.ReactiveUserTaskService;
+import com.task.management.service.service.TaskWriteResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Functional counterpart of {@link TaskController}, served by the "reactive" profile; see
+ * {@link TaskRouter} for the endpoints it leaves out.
+ */
+@Component
+@Profile("reactive")
+public class TaskHandler {
+
+    private static final ParameterizedTypeReference<Map<String, String>> STRING_MAP =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @Autowired
+    private ReactiveUserTaskService taskService;
+
+    // Larger requested pages are cut down to this many tasks, as in TaskController
+    @Value("${taskMaxPageSize:100}")
+    private int maxPageSize;
+
+    public Mono<ServerResponse> getAllTasks(ServerRequest request) {
+        String status = request.queryParam("status").orElse(null);
+        String sort = request.queryParam("sort").orElse("dueDate");
+        int page;
+        int size;
+        try {
+            page = Integer.parseInt(request.queryParam("page").orElse("0"));
+            size = Integer.parseInt(request.queryParam("size").orElse("10"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().bodyValue("Page and size must be numbers.");
+        }
+        if (page < 0 || size < 1) {
+            return ServerResponse.badRequest().bodyValue("Page must not be negative and size must be positive.");
+        }
+
+        Pageable pageable = PageRequest.of(page, Math.min(size, maxPageSize), Sort.by(sort));
+        return request.principal()
+                .map(Principal::getName)
+                .flatMap(userId -> status != null
+                        ? taskService.getTasksByUserIdAndStatus(userId, status, pageable)
+                        : taskService.getTasksByUserId(userId, pageable))
+                .flatMap(tasks -> ServerResponse.ok().bodyValue(tasks));
+    }
+
+    public Mono<ServerResponse> createTask(ServerRequest request) {
+        return request.principal()
+                .zipWith(request.bodyToMono(UserTask.class))
+                .flatMap(tuple -> {
+                    UserTask task = tuple.getT2();
+                    task.setUserId(tuple.getT1().getName());
+                    return taskService.createTask(task);
+                })
+                .flatMap(task -> ServerResponse.ok().bodyValue(task))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
+    }
+
+    public Mono<ServerResponse> getTaskById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return request.principal()
+                .flatMap(principal -> taskService.getTaskById(id)
+                        .filter(task -> task.getUserId().equals(principal.getName())))
+                .flatMap(task -> ServerResponse.ok().bodyValue(task))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> getTasksByUserId(ServerRequest request) {
+        String userId = request.pathVariable("userId");
+        return request.principal()
+                .flatMap(principal -> {
+                    // Ensure the userId matches the authenticated user
+                    if (!userId.equals(principal.getName())) {
+                        return ServerResponse.status(HttpStatus.FORBIDDEN).build();
+                    }
+                    return taskService.getTasksByUserId(userId).collectList()
+                            .flatMap(tasks -> tasks.isEmpty()
+                                    ? ServerResponse.noContent().build()
+                                    : ServerResponse.ok().bodyValue(tasks));
+                });
+    }
+
+    public Mono<ServerResponse> updateTask(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return request.principal()
+                .zipWith(request.bodyToMono(UserTask.class))
+                .flatMap(tuple -> taskService.updateTask(id, tuple.getT1().getName(), tuple.getT2()))
+                .flatMap(result -> result.getTask() != null
+                        ? ServerResponse.status(statusOf(result, HttpStatus.OK)).bodyValue(result.getTask())
+                        : ServerResponse.status(statusOf(result, HttpStatus.OK)).build());
+    }
+
+    public Mono<ServerResponse> deleteTask(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return request.principal()
+                .flatMap(principal -> taskService.deleteTask(id, principal.getName()))
+                .flatMap(result -> ServerResponse.status(statusOf(result, HttpStatus.NO_CONTENT)).build());
+    }
+
+    public Mono<ServerResponse> updateTaskStatus(ServerRequest request) {
+        String taskId = request.pathVariable("taskId");
+        return request.principal()
+                .zipWith(request.bodyToMono(STRING_MAP))
+                .flatMap(tuple -> {
+                    String newStatus = tuple.getT2().get("status");
+                    if (newStatus == null) {
+                        return ServerResponse.badRequest().bodyValue("Status is required.");
+                    }
+
+                    // Update the task status in the database
+                    return taskService.updateTaskStatus(taskId, tuple.getT1().getName(), newStatus)
+                            .flatMap(updated -> updated
+                                    ? ServerResponse.ok().bodyValue("Task status updated.")
+                                    : ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue("Task not found."));
+                });
+    }
+
+    private static HttpStatus statusOf(TaskWriteResult result, HttpStatus success) {
+        switch (result.getOutcome()) {
+            case OK:
+                return success;
+            case FORBIDDEN:
+                return HttpStatus.FORBIDDEN;
+            case CONFLICT:
+                return HttpStatus.CONFLICT;
+            default:
+                return HttpStatus.NOT_FOUND;
+        }
+    }
+
+}
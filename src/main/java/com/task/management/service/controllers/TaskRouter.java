@@ -0,0 +1,35 @@
+package com.task.management.service.controllers;
+
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Routes of the reactive task API. Only the paged list and the single-task reads and writes of
+ * {@link TaskController} are served, with the same paths and responses; the list takes no
+ * {@code view} and answers no {@code If-None-Match}. Seek pagination, search, statistics, export,
+ * the change feed, bulk writes and all of {@code /api/auth} (signup, login, signout) exist only in
+ * the servlet deployment, so reactive clients get their tokens from it.
+ */
+@Configuration
+@Profile("reactive")
+public class TaskRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> taskRoutes(TaskHandler handler) {
+        return RouterFunctions.route()
+                .path("/api/task", builder -> builder
+                        .GET("/get-all-tasks", handler::getAllTasks)
+                        .POST("/create", handler::createTask)
+                        .GET("/getById/{id}", handler::getTaskById)
+                        .GET("/getByUserId/{userId}", handler::getTasksByUserId)
+                        .PUT("/update-task/{id}", handler::updateTask)
+                        .DELETE("/delete-task/{id}", handler::deleteTask)
+                        .PUT("/update/{taskId}", handler::updateTaskStatus))
+                .build();
+    }
+}
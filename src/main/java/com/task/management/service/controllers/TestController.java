@@ -1,5 +1,6 @@
 package com.task.management.service.controllers;
 
+import org.springframework.context.annotation.Profile; // Import Profile for deployment selection
 import org.springframework.security.access.prepost.PreAuthorize; // Import PreAuthorize for role-based access control
 import org.springframework.web.bind.annotation.CrossOrigin; // Import CrossOrigin for handling CORS
 import org.springframework.web.bind.annotation.GetMapping; // Import GetMapping for handling GET requests
@@ -9,6 +10,7 @@ import org.springframework.web.bind.annotation.RestController; // Import RestCon
 @CrossOrigin(origins = "*", maxAge = 3600) // Allow cross-origin requests from any origin for 1 hour
 @RestController // Indicate that this class is a REST controller
 @RequestMapping("/api/test") // Base URL for test-related endpoints
+@Profile("!reactive") // Servlet deployment only
 public class TestController {
 
 	// swagger url to access apis
@@ -0,0 +1,93 @@
+package com.task.management.service.dto;
+
+import com.task.management.service.models.UserTask;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque continuation token for keyset pagination over tasks: the sort key, the sort value
+ * of the last returned task and its id.
+ */
+public class TaskCursor {
+
+    public static final Set<String> SORT_KEYS = Set.of("dueDate", "id");
+
+    /**
+     * Sort key of search cursors, which page by relevance score rather than by a task property.
+     */
+    public static final String SCORE = "score";
+
+    private static final String SEPARATOR = "\u0000";
+
+    private final String sortKey;
+    private final String value;
+    private final String id;
+
+    public TaskCursor(String sortKey, String value, String id) {
+        this.sortKey = sortKey;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Builds the cursor that continues after the given task.
+     */
+    public static TaskCursor after(String sortKey, UserTask task) {
+        String value;
+        switch (sortKey) {
+            case "dueDate":
+                value = task.getDueDate() != null ? task.getDueDate().toString() : null;
+                break;
+            case "id":
+                value = task.getId();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported sort key: " + sortKey);
+        }
+        return new TaskCursor(sortKey, value, task.getId());
+    }
+
+    /**
+     * Builds the cursor that continues after the given search hit.
+     */
+    public static TaskCursor after(TaskSearchHit hit) {
+        return new TaskCursor(SCORE, Double.toString(hit.getScore()), hit.getId());
+    }
+
+    /**
+     * Decodes a cursor previously returned by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static TaskCursor decode(String token) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        if (parts.length != 3 || parts[2].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        // A leading '=' marks a present value, so null and empty values stay distinguishable
+        if (!parts[1].isEmpty() && parts[1].charAt(0) != '=') {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String value = parts[1].isEmpty() ? null : parts[1].substring(1);
+        return new TaskCursor(parts[0], value, parts[2]);
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + (value == null ? "" : "=" + value) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
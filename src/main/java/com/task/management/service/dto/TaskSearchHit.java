@@ -0,0 +1,18 @@
+package com.task.management.service.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * A task matching a text search, with its relevance score. Like {@link TaskSummaryDTO}, it never
+ * carries the description.
+ */
+@Value
+public class TaskSearchHit {
+    String id;
+    String title;
+    String status;
+    LocalDate dueDate;
+    double score;
+}
@@ -0,0 +1,17 @@
+package com.task.management.service.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * What list views show of a task. Used as a repository projection, so only these fields are
+ * read from Mongo; the description in particular is never loaded.
+ */
+@Value
+public class TaskSummaryDTO {
+    String id;
+    String title;
+    String status;
+    LocalDate dueDate;
+}
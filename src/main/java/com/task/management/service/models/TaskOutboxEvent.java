@@ -0,0 +1,32 @@
+package com.task.management.service.models;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+
+@Data
+@Document(collection = "task_outbox")
+// Pending events in write order, as scanned by the dispatcher
+@CompoundIndex(name = "pending_id", def = "{'dispatchedAt': 1, 'deadAt': 1, '_id': 1}")
+public class TaskOutboxEvent {
+
+    @Id
+    private String id; // ObjectId: in write order within one instance, only to the second across instances
+    private String userId;
+    private String taskId;
+    private String type; // One of the TaskChangeEvent types
+    private UserTask task; // State after the write when the write path had it, null otherwise
+    private Long taskVersion; // Version of the task after the write (deletes: the next one); null for bulk updates and deletes
+    private Instant occurredAt;
+    private int attempts; // Failed delivery attempts so far
+    private Instant nextAttemptAt; // Earliest retry after a failed attempt
+    private String lastError;
+    @Indexed(name = "dispatched_ttl", expireAfterSeconds = 604800) // Delivered events are kept for a week
+    private Instant dispatchedAt;
+    private Instant deadAt; // Set once the event exceeded its attempts; no longer dispatched
+}
@@ -4,7 +4,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.validation.constraints.Email;
@@ -18,18 +18,20 @@ public class User {
 
   @NotBlank
   @Size(max = 20)
+  @Indexed(unique = true)
   private String username;
 
   @NotBlank
   @Size(max = 50)
   @Email
+  @Indexed(unique = true)
   private String email;
 
   @NotBlank
   @Size(max = 120)
   private String password;
 
-  @DBRef
+  // Embedded rather than referenced, so loading a user needs no extra role lookups
   private Set<Role> roles = new HashSet<>();
 
   public User() {
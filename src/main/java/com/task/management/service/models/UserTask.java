@@ -2,13 +2,27 @@ package com.task.management.service.models;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 
 @Data
 @Document(collection = "tasks")
+@CompoundIndexes({
+        // Paged and keyset listing filtered by status, sorted by due date then id
+        @CompoundIndex(name = "user_status_due_id", def = "{'userId': 1, 'status': 1, 'dueDate': 1, '_id': 1}"),
+        // Paged and keyset listing of all tasks of a user, sorted by due date then id
+        @CompoundIndex(name = "user_due_id", def = "{'userId': 1, 'dueDate': 1, '_id': 1}"),
+        // Keyset listing of all tasks of a user in id order
+        @CompoundIndex(name = "user_id", def = "{'userId': 1, '_id': 1}"),
+        // Text search within the tasks of one user; the userId prefix keeps each search to that user's keys
+        @CompoundIndex(name = "user_text", def = "{'userId': 1, 'title': 'text', 'description': 'text'}")
+})
 public class UserTask {
 
     @Id
@@ -18,4 +32,7 @@ public class UserTask {
     private String description;
     private LocalDate dueDate;
     private String status; // e.g., "pending", "in-progress", "completed"
+    @Version
+    private Long version; // Incremented on every write, used for optimistic locking and ETags
+    private Instant lastModified; // Set on every write
 }
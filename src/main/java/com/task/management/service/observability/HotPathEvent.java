@@ -0,0 +1,27 @@
+package com.task.management.service.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for one timed hot path call, so recordings show JWT, BCrypt and user lookup time next
+ * to GC and lock events; slow Mongo commands have their own {@link SlowQueryEvent}. Calls under the
+ * threshold are dropped, as for the JDK's own I/O events; lower it in the recording settings to see
+ * every call.
+ */
+@Name("com.task.management.HotPath")
+@Label("Hot Path")
+@Category({"Task Management"})
+@Description("A timed call on a request hot path")
+@StackTrace(false)
+@Threshold("1 ms")
+class HotPathEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+}
@@ -0,0 +1,63 @@
+package com.task.management.service.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times a hot path into a Micrometer timer (exported with percentile histograms) and, when a JFR
+ * recording enables it, a {@link HotPathEvent}.
+ *
+ * <p>Only the auth paths are wrapped. Task reads and writes through {@code MongoTemplate} and the
+ * repositories are not: their commands are timed by the driver ({@code mongodb.driver.commands})
+ * and, above the slow query threshold, recorded as {@link SlowQueryEvent}s.
+ */
+public final class HotPathTimer {
+
+    private final Timer timer;
+    private final String operation;
+
+    /**
+     * @param registry    The registry to publish the timer to.
+     * @param name        The timer name; the JFR event operation is {@code name{key=value,...}}.
+     * @param description What is being timed.
+     * @param tags        Alternating tag keys and values.
+     */
+    public HotPathTimer(MeterRegistry registry, String name, String description, String... tags) {
+        this.timer = Timer.builder(name).description(description).tags(tags).register(registry);
+        this.operation = tags.length == 0 ? name : name + "{" + pairs(tags) + "}";
+    }
+
+    private static String pairs(String... tags) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 0; i + 1 < tags.length; i += 2) {
+            joiner.add(tags[i] + "=" + tags[i + 1]);
+        }
+        return joiner.toString();
+    }
+
+    public <T> T record(Supplier<T> call) {
+        HotPathEvent event = new HotPathEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Records a duration measured by the caller, e.g. time spent waiting in a queue.
+     */
+    public void record(long nanos) {
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,31 @@
+package com.task.management.service.observability;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link LogRateLimiter} per key, so a flood of one kind of failure (expired tokens) cannot hide
+ * the first line of another (a bad signature). Keys must come from a small, fixed set such as
+ * failure reasons or exception types, never from request data.
+ */
+public final class KeyedLogRateLimiter {
+
+    private final Duration interval;
+    private final ConcurrentHashMap<String, LogRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public KeyedLogRateLimiter(Duration interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * @return The number of lines with this key suppressed since the last one let through, or -1 if
+     * this one must be suppressed as well.
+     */
+    public long acquire(String key) {
+        LogRateLimiter limiter = limiters.get(key); // Plain get first: computeIfAbsent locks a bin even on a hit
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(key, k -> new LogRateLimiter(interval));
+        }
+        return limiter.acquire();
+    }
+}
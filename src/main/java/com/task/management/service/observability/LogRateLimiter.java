@@ -0,0 +1,34 @@
+package com.task.management.service.observability;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets one log line through per interval and counts the ones it held back, so a flood of identical
+ * failures (bad tokens, unauthorized requests) costs one line per interval instead of one per request.
+ */
+public final class LogRateLimiter {
+
+    private final long intervalNanos;
+    private final AtomicLong nextAllowed;
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogRateLimiter(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+        this.nextAllowed = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * @return The number of lines suppressed since the last one let through, or -1 if this one must
+     * be suppressed as well.
+     */
+    public long acquire() {
+        long now = System.nanoTime();
+        long next = nextAllowed.get();
+        if (now - next >= 0 && nextAllowed.compareAndSet(next, now + intervalNanos)) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        return -1;
+    }
+}
@@ -0,0 +1,61 @@
+package com.task.management.service.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples INFO events of the application's loggers once more than {@code burstPerSecond} of them
+ * arrive within a second: every event up to the burst is logged, after that one in
+ * {@code sampleRate}. WARN and ERROR are never sampled.
+ *
+ * <p>Turbo filters run before the event is created, so a dropped event allocates nothing: its
+ * message is never formatted. Level checks ({@code isInfoEnabled()}) pass through unsampled, so a
+ * guarded statement is counted once, at the actual call.
+ */
+public class SampledInfoFilter extends TurboFilter {
+
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    private String loggerPrefix = "com.task.management.service";
+    private long burstPerSecond = 100;
+    private long sampleRate = 100;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong windowCount = new AtomicLong();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level != Level.INFO || format == null || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= SECOND_NANOS && windowStart.compareAndSet(start, now)) {
+            windowCount.set(0); // Events racing with the reset may land in either window
+        }
+
+        long count = windowCount.incrementAndGet();
+        if (count <= burstPerSecond || count % sampleRate == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setBurstPerSecond(long burstPerSecond) {
+        this.burstPerSecond = burstPerSecond;
+    }
+
+    public void setSampleRate(long sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+}
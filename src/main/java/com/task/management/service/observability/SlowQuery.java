@@ -0,0 +1,19 @@
+package com.task.management.service.observability;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * One slow Mongo command as reported by the {@code slowqueries} actuator endpoint. The shape lists
+ * the filter fields, sort fields or pipeline stages only, never the values.
+ */
+@Value
+public class SlowQuery {
+    String command;
+    String collection;
+    String shape;
+    long elapsedMillis;
+    boolean failed;
+    Instant finishedAt;
+}
@@ -0,0 +1,31 @@
+package com.task.management.service.observability;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/slowqueries}: the slowest Mongo commands, slowest first. DELETE clears the list,
+ * e.g. before a load test.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    @Autowired
+    private SlowQueryTracker tracker;
+
+    @ReadOperation
+    public List<SlowQuery> slowQueries() {
+        return tracker.slowest();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        tracker.reset();
+    }
+}
@@ -0,0 +1,34 @@
+package com.task.management.service.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for a Mongo command over the slow query threshold. The command is timed by the driver,
+ * so the elapsed time is a field rather than the event duration.
+ */
+@Name("com.task.management.SlowQuery")
+@Label("Slow Mongo Command")
+@Category({"Task Management"})
+@Description("A Mongo command slower than slowQueryThresholdMs")
+@StackTrace(false)
+class SlowQueryEvent extends Event {
+
+    @Label("Command")
+    String command;
+
+    @Label("Collection")
+    String collection;
+
+    @Label("Shape")
+    String shape;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.MILLISECONDS)
+    long elapsed;
+}
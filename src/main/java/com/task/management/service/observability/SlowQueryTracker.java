@@ -0,0 +1,190 @@
+package com.task.management.service.observability;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the slowest Mongo commands seen since startup or the last reset. Per-command latency
+ * histograms come from Spring Boot's {@code mongodb.driver.commands} timer; this only remembers
+ * which commands were slow and what they looked like.
+ *
+ * <p>The driver releases the buffer behind a command document once the started callback returns, so
+ * the callback copies out the field and stage names right away (never values); the shape string is
+ * only joined from them in the finished callback, and only for a command over the threshold.
+ */
+@Component
+public class SlowQueryTracker implements CommandListener {
+
+    private static final Comparator<SlowQuery> BY_ELAPSED = Comparator.comparingLong(SlowQuery::getElapsedMillis);
+
+    @Value("${slowQueryThresholdMs:100}")
+    private long thresholdMs;
+
+    @Value("${slowQueryTopSize:50}")
+    private int topSize;
+
+    private final ConcurrentHashMap<Integer, Started> inFlight = new ConcurrentHashMap<>(); // Request id -> command
+    private final PriorityQueue<SlowQuery> slowest = new PriorityQueue<>(BY_ELAPSED); // Fastest of the slow on top
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonDocument command = event.getCommand();
+        String name = event.getCommandName();
+        BsonValue target = command.get(name);
+        String collection = target != null && target.isString() ? target.asString().getValue() : null;
+        inFlight.put(event.getRequestId(), new Started(collection, outline(name, command)));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        finished(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.MILLISECONDS), false);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        finished(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.MILLISECONDS), true);
+    }
+
+    /**
+     * Returns the slowest commands, slowest first.
+     */
+    public List<SlowQuery> slowest() {
+        List<SlowQuery> snapshot;
+        synchronized (slowest) {
+            snapshot = new ArrayList<>(slowest);
+        }
+        snapshot.sort(BY_ELAPSED.reversed());
+        return snapshot;
+    }
+
+    public void reset() {
+        synchronized (slowest) {
+            slowest.clear();
+        }
+    }
+
+    private void finished(int requestId, String name, long elapsedMillis, boolean failed) {
+        Started started = inFlight.remove(requestId);
+        if (started == null || elapsedMillis < thresholdMs) {
+            return;
+        }
+
+        String shape = started.shape();
+        SlowQuery query = new SlowQuery(name, started.collection, shape, elapsedMillis, failed, Instant.now());
+        synchronized (slowest) {
+            if (slowest.size() < topSize) {
+                slowest.add(query);
+            } else if (slowest.peek().getElapsedMillis() < elapsedMillis) {
+                slowest.poll();
+                slowest.add(query);
+            }
+        }
+
+        SlowQueryEvent event = new SlowQueryEvent();
+        if (event.shouldCommit()) {
+            event.command = name;
+            event.collection = started.collection;
+            event.shape = shape;
+            event.elapsed = elapsedMillis;
+            event.commit();
+        }
+    }
+
+    /**
+     * Copies the names a shape is built from: for each part a label, followed by its field or stage names.
+     */
+    private static Part[] outline(String name, BsonDocument command) {
+        switch (name) {
+            case "find":
+                return new Part[] {fields("filter", command.get("filter")), fields("sort", command.get("sort"))};
+            case "count":
+            case "distinct":
+                return new Part[] {fields("filter", command.get("query"))};
+            case "findAndModify":
+                return new Part[] {fields("filter", command.get("query")), fields("sort", command.get("sort"))};
+            case "aggregate":
+                return new Part[] {stages(command.get("pipeline"))};
+            case "update":
+            case "delete":
+                return new Part[] {fields("filter", firstStatementFilter(command.get(name + "s")))};
+            default:
+                return new Part[0];
+        }
+    }
+
+    private static BsonValue firstStatementFilter(BsonValue statements) {
+        if (statements == null || !statements.isArray() || statements.asArray().isEmpty()) {
+            return null; // Bulk statements travel as a payload outside the command document
+        }
+        BsonValue first = statements.asArray().get(0);
+        return first.isDocument() ? first.asDocument().get("q") : null;
+    }
+
+    private static Part fields(String label, BsonValue value) {
+        List<String> names = value != null && value.isDocument() ? List.copyOf(value.asDocument().keySet()) : List.of();
+        return new Part(label, "{", "}", names);
+    }
+
+    private static Part stages(BsonValue value) {
+        List<String> names = new ArrayList<>();
+        if (value != null && value.isArray()) {
+            BsonArray pipeline = value.asArray();
+            for (BsonValue stage : pipeline) {
+                if (stage.isDocument() && !stage.asDocument().isEmpty()) {
+                    names.add(stage.asDocument().getFirstKey());
+                }
+            }
+        }
+        return new Part("pipeline", "[", "]", names);
+    }
+
+    private static final class Part {
+        final String label;
+        final String open;
+        final String close;
+        final List<String> names;
+
+        Part(String label, String open, String close, List<String> names) {
+            this.label = label;
+            this.open = open;
+            this.close = close;
+            this.names = names;
+        }
+    }
+
+    private static final class Started {
+        final String collection;
+        final Part[] parts;
+
+        Started(String collection, Part[] parts) {
+            this.collection = collection;
+            this.parts = parts;
+        }
+
+        String shape() {
+            StringJoiner shape = new StringJoiner(" ");
+            for (Part part : parts) {
+                StringJoiner names = new StringJoiner(", ", part.label + part.open, part.close);
+                part.names.forEach(names::add);
+                shape.add(names.toString());
+            }
+            return shape.toString();
+        }
+    }
+}
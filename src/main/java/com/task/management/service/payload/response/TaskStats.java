@@ -0,0 +1,77 @@
+package com.task.management.service.payload.response;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public class TaskStats {
+	public static final String NO_STATUS = "none"; // Response label of the tasks without status
+
+	private LocalDate asOf; // Day the due date buckets were computed for
+	private long total;
+	private Map<String, Long> byStatus;
+	private long overdue; // Due before asOf and not completed
+	private long dueThisWeek; // Due within the seven days starting at asOf and not completed
+
+	public TaskStats(LocalDate asOf, long total, Map<String, Long> byStatus, long overdue, long dueThisWeek) {
+		this.asOf = asOf;
+		this.total = total;
+		this.byStatus = byStatus;
+		this.overdue = overdue;
+		this.dueThisWeek = dueThisWeek;
+	}
+
+	/**
+	 * These statistics as sent to clients. JSON has no null keys, so the tasks without status are
+	 * reported under {@link #NO_STATUS}, together with any tasks whose status is "none".
+	 */
+	public TaskStats labelled() {
+		if (byStatus == null || byStatus.keySet().stream().noneMatch(Objects::isNull)) {
+			return this;
+		}
+		Map<String, Long> labelled = new LinkedHashMap<>();
+		byStatus.forEach((status, count) -> labelled.merge(status != null ? status : NO_STATUS, count, Long::sum));
+		return new TaskStats(asOf, total, labelled, overdue, dueThisWeek);
+	}
+
+	public LocalDate getAsOf() {
+		return asOf;
+	}
+
+	public void setAsOf(LocalDate asOf) {
+		this.asOf = asOf;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public void setTotal(long total) {
+		this.total = total;
+	}
+
+	public Map<String, Long> getByStatus() {
+		return byStatus;
+	}
+
+	public void setByStatus(Map<String, Long> byStatus) {
+		this.byStatus = byStatus;
+	}
+
+	public long getOverdue() {
+		return overdue;
+	}
+
+	public void setOverdue(long overdue) {
+		this.overdue = overdue;
+	}
+
+	public long getDueThisWeek() {
+		return dueThisWeek;
+	}
+
+	public void setDueThisWeek(long dueThisWeek) {
+		this.dueThisWeek = dueThisWeek;
+	}
+}
@@ -0,0 +1,18 @@
+package com.task.management.service.repository;
+
+import com.task.management.service.models.UserTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link TaskRepository}, used by the reactive task API.
+ */
+public interface ReactiveTaskRepository extends ReactiveMongoRepository<UserTask, String> {
+    Flux<UserTask> findByUserId(String userId);
+    Flux<UserTask> findByUserId(String userId, Pageable pageable);
+    Mono<Long> countByUserId(String userId);
+    Flux<UserTask> findByUserIdAndStatus(String userId, String status, Pageable pageable);
+    Mono<Long> countByUserIdAndStatus(String userId, String status);
+}
@@ -1,14 +1,28 @@
 package com.task.management.service.repository;
 
+import com.task.management.service.dto.TaskSummaryDTO;
 import com.task.management.service.models.UserTask;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends MongoRepository<UserTask, String> {
+public interface TaskRepository extends MongoRepository<UserTask, String>, TaskRepositoryCustom {
     List<UserTask> findByUserId(String userId);
     Page<UserTask> findByUserId(String userId, Pageable pageable);
     List<UserTask> findByUserIdAndStatus(String userId, String status);
     Page<UserTask> findByUserIdAndStatus(String userId, String status, Pageable pageable);
+
+    // Summary projections for list views; only the summary fields are read
+    Page<TaskSummaryDTO> findSummaryByUserId(String userId, Pageable pageable);
+    Page<TaskSummaryDTO> findSummaryByUserIdAndStatus(String userId, String status, Pageable pageable);
+
+    // Cursor-backed streams for exports; the caller must close them to release the server cursor
+    @Meta(cursorBatchSize = 500)
+    Stream<UserTask> streamByUserId(String userId);
+
+    @Meta(cursorBatchSize = 500)
+    Stream<UserTask> streamByUserIdAndStatus(String userId, String status);
 }
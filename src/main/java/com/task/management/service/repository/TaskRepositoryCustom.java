@@ -0,0 +1,54 @@
+package com.task.management.service.repository;
+
+import com.task.management.service.dto.TaskSearchHit;
+import com.task.management.service.models.UserTask;
+import com.task.management.service.payload.response.TaskStats;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+
+/**
+ * Task queries that cannot be expressed as derived repository methods.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Seek query: the next {@code size} tasks of a user ordered by {@code (sortKey, id)},
+     * starting strictly after the given position. Runs without skip and without a count query.
+     *
+     * @param userId    the owner of the tasks
+     * @param status    optional status filter, may be null
+     * @param sortKey   the property to order by
+     * @param lastValue sort value of the last task already returned, may be null
+     * @param lastId    id of the last task already returned, null for the first slice
+     * @param size      the maximum number of tasks to return
+     * @return the tasks, and whether more follow
+     */
+    Slice<UserTask> findByUserIdAfter(String userId, String status, String sortKey, Object lastValue, String lastId, int size);
+
+    /**
+     * Text search within the tasks of a user, ordered by relevance then id, starting strictly
+     * after the given position. Only the summary fields are read. Scores cannot be looked up in
+     * the text index, so each slice scores every task of the user that matches the terms; only the
+     * sort is bounded by the slice size.
+     *
+     * @param userId    the owner of the tasks
+     * @param text      the search terms, in $text syntax
+     * @param lastScore score of the last hit already returned, null for the first slice
+     * @param lastId    id of the last hit already returned, null for the first slice
+     * @param size      the maximum number of hits to return
+     * @return the hits, and whether more follow
+     */
+    Slice<TaskSearchHit> searchByUserId(String userId, String text, Double lastScore, String lastId, int size);
+
+    /**
+     * Counts the tasks of a user per status, plus the open tasks that are overdue or due within a
+     * week, in a single aggregation over the user's tasks. Tasks without status are counted under
+     * the null key; {@link TaskStats#labelled()} turns that into the response form.
+     *
+     * @param userId the owner of the tasks
+     * @param today  the day the due date buckets are relative to
+     * @return the statistics
+     */
+    TaskStats aggregateStats(String userId, LocalDate today);
+}
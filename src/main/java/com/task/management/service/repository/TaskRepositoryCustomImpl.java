@@ -0,0 +1,144 @@
+package com.task.management.service.repository;
+
+import com.task.management.service.dto.TaskSearchHit;
+import com.task.management.service.models.UserTask;
+import com.task.management.service.payload.response.TaskStats;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    public static final String COMPLETED = "completed";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Slice<UserTask> findByUserIdAfter(String userId, String status, String sortKey, Object lastValue, String lastId, int size) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (status != null) {
+            criteria.and("status").is(status);
+        }
+        if (lastId != null) {
+            criteria = new Criteria().andOperator(criteria, after(sortKey, lastValue, lastId));
+        }
+
+        Sort sort = "id".equals(sortKey) ? Sort.by("id") : Sort.by(sortKey).and(Sort.by("id"));
+        // Fetch one extra task to learn whether another slice follows
+        Query query = Query.query(criteria).with(sort).limit(size + 1);
+        List<UserTask> tasks = mongoTemplate.find(query, UserTask.class);
+
+        boolean hasNext = tasks.size() > size;
+        if (hasNext) {
+            tasks = tasks.subList(0, size);
+        }
+        return new SliceImpl<>(tasks, PageRequest.of(0, size, sort), hasNext);
+    }
+
+    @Override
+    public Slice<TaskSearchHit> searchByUserId(String userId, String text, Double lastScore, String lastId, int size) {
+        // $text has to be in the first stage, together with the userId prefix of the text index.
+        // The index cannot range over scores, so every page still scores each task of the user that
+        // matches the terms: the cost of a page grows with the match set, not with the page size.
+        // Everything after that is kept small: the summary fields are projected before the cursor
+        // $match drops the hits already returned, and $sort followed by $limit keeps only the top
+        // size + 1 of the rest in memory instead of sorting them all.
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(stage("$match", new Document("userId", userId).append("$text", new Document("$search", text))));
+        stages.add(stage("$project", new Document("title", 1).append("status", 1).append("dueDate", 1)
+                .append("score", new Document("$meta", "textScore"))));
+        if (lastId != null) {
+            Object id = ObjectId.isValid(lastId) ? new ObjectId(lastId) : lastId;
+            stages.add(stage("$match", new Document("$or", List.of(
+                    new Document("score", new Document("$lt", lastScore)),
+                    new Document("score", lastScore).append("_id", new Document("$gt", id))))));
+        }
+        stages.add(stage("$sort", new Document("score", -1).append("_id", 1)));
+        // Fetch one extra hit to learn whether another slice follows
+        stages.add(stage("$limit", size + 1));
+
+        List<TaskSearchHit> hits = mongoTemplate.aggregate(Aggregation.newAggregation(stages),
+                mongoTemplate.getCollectionName(UserTask.class), TaskSearchHit.class).getMappedResults();
+
+        boolean hasNext = hits.size() > size;
+        if (hasNext) {
+            hits = hits.subList(0, size);
+        }
+        return new SliceImpl<>(hits, PageRequest.of(0, size), hasNext);
+    }
+
+    @Override
+    public TaskStats aggregateStats(String userId, LocalDate today) {
+        // Compare against dates exactly as the converter stores LocalDate values
+        Object start = mongoTemplate.getConverter().convertToMongoType(today);
+        Object weekEnd = mongoTemplate.getConverter().convertToMongoType(today.plusDays(7));
+
+        AggregationExpression open = ComparisonOperators.valueOf("status").notEqualToValue(COMPLETED);
+        AggregationExpression overdue = BooleanOperators.And.and(open,
+                ComparisonOperators.valueOf("dueDate").lessThanValue(start));
+        AggregationExpression dueThisWeek = BooleanOperators.And.and(open,
+                ComparisonOperators.valueOf("dueDate").greaterThanEqualToValue(start),
+                ComparisonOperators.valueOf("dueDate").lessThanValue(weekEnd));
+
+        // One group per status; the per-status rows are summed up here, there are only a few
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").is(userId)),
+                Aggregation.group("status").count().as("count")
+                        .sum(ConditionalOperators.when(overdue).then(1).otherwise(0)).as("overdue")
+                        .sum(ConditionalOperators.when(dueThisWeek).then(1).otherwise(0)).as("dueThisWeek"));
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        long total = 0;
+        long overdueCount = 0;
+        long dueThisWeekCount = 0;
+        for (Document row : mongoTemplate.aggregate(aggregation, UserTask.class, Document.class)) {
+            long count = row.get("count", Number.class).longValue();
+            String status = row.getString("_id");
+            byStatus.put(status, count); // Null for the tasks without status, see TaskStats.labelled()
+            total += count;
+            overdueCount += row.get("overdue", Number.class).longValue();
+            dueThisWeekCount += row.get("dueThisWeek", Number.class).longValue();
+        }
+        return new TaskStats(today, total, byStatus, overdueCount, dueThisWeekCount);
+    }
+
+    private static AggregationOperation stage(String operator, Object body) {
+        Document document = new Document(operator, body);
+        return context -> document;
+    }
+
+    private static Criteria after(String sortKey, Object lastValue, String lastId) {
+        if ("id".equals(sortKey)) {
+            return Criteria.where("id").gt(lastId);
+        }
+        if (lastValue == null) {
+            // Missing values sort first, so everything with a value comes after them
+            return new Criteria().orOperator(
+                    Criteria.where(sortKey).is(null).and("id").gt(lastId),
+                    Criteria.where(sortKey).ne(null));
+        }
+        return new Criteria().orOperator(
+                Criteria.where(sortKey).gt(lastValue),
+                Criteria.where(sortKey).is(lastValue).and("id").gt(lastId));
+    }
+}
@@ -0,0 +1,116 @@
+package com.task.management.service.security;
+
+import io.micrometer.core.instrument.MeterRegistry; // Import MeterRegistry for the verification timer
+import com.task.management.service.security.jwt.JwtRevocationList; // Import for revoked tokens
+import com.task.management.service.security.jwt.JwtUtils; // Import for JWT verification
+import com.task.management.service.security.jwt.ReactiveAuthTokenFilter; // Import for the reactive JWT filter
+import org.springframework.beans.factory.annotation.Value; // Import for configuration values
+import org.springframework.context.annotation.Bean; // Import for Spring configuration
+import org.springframework.context.annotation.Configuration; // Import for configuration class
+import org.springframework.context.annotation.Profile; // Import for profile selection
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order; // Import for ordering the filter chains
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity; // Import for WebFlux security
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import reactor.core.publisher.Mono;
+
+/**
+ * Security configuration of the reactive task API, active with the "reactive" profile.
+ * Login and signup stay on the servlet deployment; this one only verifies the tokens it issued.
+ */
+@Configuration // Marks the class as a source of bean definitions
+@Profile("reactive") // Only used by the reactive deployment
+@EnableWebFluxSecurity // Enables Spring Security for WebFlux
+public class ReactiveWebSecurityConfig {
+
+  @Value("${metricsScrapeUsername:prometheus}")
+  private String metricsScrapeUsername; // HTTP Basic user of the Prometheus scraper
+
+  @Value("${metricsScrapePassword:}")
+  private String metricsScrapePassword; // Scraping is refused while this is empty
+
+  /**
+   * Configures the security filter chain of the Prometheus endpoint; see WebSecurityConfig.
+   *
+   * @param http ServerHttpSecurity configuration
+   * @return SecurityWebFilterChain instance
+   */
+  @Bean
+  @Order(Ordered.HIGHEST_PRECEDENCE) // Must match before the JWT chain, which covers every path
+  public SecurityWebFilterChain metricsScrapeWebFilterChain(ServerHttpSecurity http) {
+    http
+            .securityMatcher(ServerWebExchangeMatchers.pathMatchers("/actuator/prometheus"))
+            .csrf(csrf -> csrf.disable()) // Disable CSRF protection
+            .formLogin(formLogin -> formLogin.disable())
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance()); // Stateless
+    if (metricsScrapePassword.isEmpty()) {
+      return http.authorizeExchange(exchanges -> exchanges.anyExchange().denyAll()).build(); // No scrape credential configured
+    }
+
+    PasswordEncoder encoder = new BCryptPasswordEncoder();
+    UserDetailsRepositoryReactiveAuthenticationManager scrapeManager = new UserDetailsRepositoryReactiveAuthenticationManager(
+            new MapReactiveUserDetailsService(User.withUsername(metricsScrapeUsername)
+                    .password(encoder.encode(metricsScrapePassword))
+                    .roles("METRICS")
+                    .build()));
+    scrapeManager.setPasswordEncoder(encoder);
+    return http
+            .httpBasic(httpBasic -> httpBasic.authenticationManager(scrapeManager)) // Prometheus basic_auth
+            .authorizeExchange(exchanges -> exchanges.anyExchange().hasRole("METRICS"))
+            .build();
+  }
+
+  /**
+   * Configures the security filter chain for reactive HTTP requests.
+   *
+   * @param http ServerHttpSecurity configuration
+   * @param jwtUtils Utility to verify the JWT tokens
+   * @param revocationList Revoked tokens of signed out users
+   * @param meterRegistry Registry for the token verification timer
+   * @return SecurityWebFilterChain instance
+   */
+  @Bean
+  public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtUtils jwtUtils,
+                                                       JwtRevocationList revocationList,
+                                                       MeterRegistry meterRegistry) {
+    return http
+            .csrf(csrf -> csrf.disable()) // Disable CSRF protection
+            .httpBasic(httpBasic -> httpBasic.disable()) // Only bearer tokens are accepted
+            .formLogin(formLogin -> formLogin.disable())
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance()) // Stateless
+            .exceptionHandling(exceptionHandling ->
+                    exceptionHandling.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .authorizeExchange(exchanges ->
+                    exchanges
+                            .pathMatchers(HttpMethod.POST, "/api/task/create").hasAnyRole("USER", "MODERATOR", "ADMIN")
+                            .pathMatchers("/api/task/**").authenticated()
+                            .pathMatchers("/actuator/health", "/actuator/health/**").permitAll() // Load balancer and orchestrator probes
+                            .pathMatchers("/actuator/**").hasRole("ADMIN") // Metrics are for operators only
+                            .anyExchange().authenticated())
+            .addFilterAt(new ReactiveAuthTokenFilter(jwtUtils, revocationList, meterRegistry), SecurityWebFiltersOrder.AUTHENTICATION)
+            .build();
+  }
+
+  /**
+   * Authentication happens in the JWT filter only; this keeps Spring Boot from creating a default user.
+   *
+   * @return ReactiveAuthenticationManager that authenticates nothing
+   */
+  @Bean
+  public ReactiveAuthenticationManager reactiveAuthenticationManager() {
+    return authentication -> Mono.empty();
+  }
+}
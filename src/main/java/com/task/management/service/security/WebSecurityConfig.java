@@ -2,19 +2,27 @@ package com.task.management.service.security;
 
 import com.task.management.service.security.jwt.AuthEntryPointJwt; // Import for unauthorized access handler
 import com.task.management.service.security.jwt.AuthTokenFilter; // Import for JWT token filter
+import com.task.management.service.security.services.BoundedPasswordEncoder; // Import for the pooled BCrypt encoder
 import com.task.management.service.security.services.UserDetailsServiceImpl; // Import for user details service implementation
+import io.micrometer.core.instrument.MeterRegistry; // Import for the hashing timers
 import org.springframework.beans.factory.annotation.Autowired; // Import for dependency injection
+import org.springframework.beans.factory.annotation.Value; // Import for configuration values
 import org.springframework.context.annotation.Bean; // Import for Spring configuration
 import org.springframework.context.annotation.Configuration; // Import for configuration class
+import org.springframework.context.annotation.Profile; // Import for profile selection
+import org.springframework.core.annotation.Order; // Import for ordering the filter chains
 import org.springframework.security.authentication.AuthenticationManager; // Import for authentication manager
+import org.springframework.security.authentication.ProviderManager; // Import for the isolated scrape manager
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider; // Import for authentication provider
+import org.springframework.security.config.Customizer; // Import for default configurers
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration; // Import for authentication configuration
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity; // Import for method security
 import org.springframework.security.config.annotation.web.builders.HttpSecurity; // Import for HTTP security configuration
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.http.SessionCreationPolicy; // Import for session creation policies
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; // Import for password encoding
+import org.springframework.security.core.userdetails.User; // Import User to build the scrape user
 import org.springframework.security.crypto.password.PasswordEncoder; // Import for password encoder interface
+import org.springframework.security.provisioning.InMemoryUserDetailsManager; // Import for the scrape user store
 import org.springframework.security.web.SecurityFilterChain; // Import for security filter chain
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter; // Import for username/password authentication filter
 
@@ -22,6 +30,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * Security configuration class to set up Spring Security.
  */
 @Configuration // Marks the class as a source of bean definitions
+@Profile("!reactive") // The reactive deployment uses ReactiveWebSecurityConfig
 @EnableMethodSecurity // Enables method-level security annotations
 public class WebSecurityConfig {
 
@@ -31,6 +40,27 @@ public class WebSecurityConfig {
   @Autowired
   private AuthEntryPointJwt unauthorizedHandler; // Injects the entry point for unauthorized requests
 
+  @Autowired
+  private MeterRegistry meterRegistry; // Injects the registry for the password hashing timers
+
+  @Value("${passwordEncoderStrength:10}")
+  private int passwordEncoderStrength; // BCrypt cost; stored hashes are rehashed on login when it changes
+
+  @Value("${passwordHashingThreads:4}")
+  private int passwordHashingThreads; // Threads dedicated to hashing and verification
+
+  @Value("${passwordHashingQueueCapacity:64}")
+  private int passwordHashingQueueCapacity; // Hashes allowed to wait before requests are rejected
+
+  @Value("${passwordHashingRetryAfterSeconds:1}")
+  private int passwordHashingRetryAfterSeconds; // Retry-After sent with rejected requests
+
+  @Value("${metricsScrapeUsername:prometheus}")
+  private String metricsScrapeUsername; // HTTP Basic user of the Prometheus scraper
+
+  @Value("${metricsScrapePassword:}")
+  private String metricsScrapePassword; // Scraping is refused while this is empty
+
   /**
    * Creates a bean for the authentication JWT token filter.
    *
@@ -52,6 +82,7 @@ public class WebSecurityConfig {
 
     authProvider.setUserDetailsService(userDetailsService); // Set the user details service
     authProvider.setPasswordEncoder(passwordEncoder()); // Set the password encoder
+    authProvider.setUserDetailsPasswordService(userDetailsService); // Store upgraded hashes after a successful login
 
     return authProvider; // Return the configured authentication provider
   }
@@ -69,13 +100,55 @@ public class WebSecurityConfig {
   }
 
   /**
-   * Creates a bean for the password encoder.
+   * Creates a bean for the password encoder. Hashing runs on its own bounded pool so a login storm
+   * cannot starve the request threads.
    *
    * @return PasswordEncoder instance
    */
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder(); // Returns a new instance of BCryptPasswordEncoder
+    return new BoundedPasswordEncoder(passwordEncoderStrength, passwordHashingThreads,
+            passwordHashingQueueCapacity, passwordHashingRetryAfterSeconds, meterRegistry);
+  }
+
+  /**
+   * Configures the security filter chain of the Prometheus endpoint. Scrapers cannot log in for a
+   * JWT token, so they authenticate with HTTP Basic as a dedicated user holding only the METRICS role.
+   * The chain has its own authentication manager without a parent, so Basic credentials sent here are
+   * never checked against the application users.
+   *
+   * @param http HttpSecurity configuration
+   * @return SecurityFilterChain instance
+   * @throws Exception if there is an error configuring the security filter chain
+   */
+  @Bean
+  @Order(1) // Must match before the JWT chain, which covers every path
+  public SecurityFilterChain metricsScrapeFilterChain(HttpSecurity http) throws Exception {
+    http
+            .requestMatchers(requestMatchers -> requestMatchers.antMatchers("/actuator/prometheus"))
+            .csrf(csrf -> csrf.disable()) // Disable CSRF protection
+            .sessionManagement(sessionManagement ->
+                    sessionManagement.sessionCreationPolicy(SessionCreationPolicy.STATELESS)); // Set session policy to stateless
+
+    if (metricsScrapePassword.isEmpty()) {
+      // No scrape credential configured: nothing is authenticated here, so Basic is not even parsed
+      http.authorizeRequests(authorizeRequests -> authorizeRequests.anyRequest().denyAll());
+      return http.build();
+    }
+
+    DaoAuthenticationProvider scrapeProvider = new DaoAuthenticationProvider(); // Knows the scrape user only
+    scrapeProvider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(metricsScrapeUsername)
+            .password(passwordEncoder().encode(metricsScrapePassword))
+            .roles("METRICS")
+            .build()));
+    scrapeProvider.setPasswordEncoder(passwordEncoder());
+
+    http
+            .authenticationManager(new ProviderManager(scrapeProvider)) // No parent: the application users are out of reach
+            .httpBasic(Customizer.withDefaults()) // Prometheus sends basic_auth credentials with every scrape
+            .authorizeRequests(authorizeRequests -> authorizeRequests.anyRequest().hasRole("METRICS"));
+
+    return http.build(); // Build and return the security filter chain
   }
 
   /**
@@ -99,6 +172,8 @@ public class WebSecurityConfig {
                             .antMatchers("/api/test/**").permitAll()
                             .antMatchers("/api/task/**").permitAll()
                             .antMatchers("/api/admin/**").hasRole("ADMIN") // Require ADMIN role for specific endpoints
+                            .antMatchers("/actuator/health", "/actuator/health/**").permitAll() // Load balancer and orchestrator probes
+                            .antMatchers("/actuator/**").hasRole("ADMIN") // Metrics are for operators only
                             .antMatchers("/api/user/**").hasRole("USER") // Require USER role for specific endpoints
                             .antMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html", "/webjars/**").permitAll() // Allow access to Swagger UI and docs
                             .anyRequest().authenticated()); // Require authentication for any other request
@@ -1,9 +1,11 @@
 package com.task.management.service.security.jwt;
 
 import java.io.IOException; // Import IOException for handling input/output exceptions
+import java.time.Duration; // Import Duration for the log interval
 
 
 
+import com.task.management.service.observability.LogRateLimiter;
 import org.slf4j.Logger; // Import Logger for logging errors and information
 import org.slf4j.LoggerFactory; // Import LoggerFactory for creating Logger instances
 import org.springframework.security.core.AuthenticationException; // Import AuthenticationException for authentication errors
@@ -22,6 +24,8 @@ public class AuthEntryPointJwt implements AuthenticationEntryPoint {
 
 	private static final Logger logger = LoggerFactory.getLogger(AuthEntryPointJwt.class); // Logger for logging errors
 
+	private static final LogRateLimiter unauthorizedLog = new LogRateLimiter(Duration.ofSeconds(10)); // One line per burst of 401s
+
 	/**
 	 * Handle unauthorized access attempts.
 	 *
@@ -34,8 +38,11 @@ public class AuthEntryPointJwt implements AuthenticationEntryPoint {
 	@Override
 	public void commence(HttpServletRequest request, HttpServletResponse response,
 						 AuthenticationException authException) throws IOException, ServletException {
-		// Log the unauthorized access attempt with the exception message
-		logger.error("Unauthorized error: {}", authException.getMessage());
+		// Log the unauthorized access attempt with the exception message, at most once per interval
+		long suppressed = unauthorizedLog.acquire();
+		if (suppressed >= 0) {
+			logger.error("Unauthorized error: {} ({} suppressed)", authException.getMessage(), suppressed);
+		}
 
 		// Send an HTTP response with a 401 Unauthorized status and an error message
 		response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Error: Unauthorized");
@@ -1,11 +1,18 @@
 package com.task.management.service.security.jwt;
 
 import java.io.IOException; // Import IOException for handling input/output exceptions
+import java.time.Duration; // Import Duration for the failure log interval
 
+import com.task.management.service.observability.HotPathTimer;
+import com.task.management.service.observability.KeyedLogRateLimiter;
+import com.task.management.service.security.services.UserDetailsImpl;
 import com.task.management.service.security.services.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry; // Import MeterRegistry for the verification timer
 import org.slf4j.Logger; // Import Logger for logging errors and information
 import org.slf4j.LoggerFactory; // Import LoggerFactory for creating Logger instances
 import org.springframework.beans.factory.annotation.Autowired; // Import Autowired for dependency injection
+import org.springframework.beans.factory.annotation.Value; // Import Value for dependency injection
+import org.springframework.context.annotation.Profile; // Import for profile selection
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken; // Import for creating authentication tokens
 import org.springframework.security.core.context.SecurityContextHolder; // Import for managing security context
 import org.springframework.security.core.userdetails.UserDetails; // Import for user details
@@ -14,6 +21,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils; // Import StringUtils for string utility methods
 import org.springframework.web.filter.OncePerRequestFilter; // Import OncePerRequestFilter to ensure the filter is applied once per request
 
+import javax.annotation.PostConstruct; // Import PostConstruct to register the timer once
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -24,6 +32,7 @@ import javax.servlet.http.HttpServletResponse;
  * Filter to validate the JWT token and set user authentication in the security context.
  */
 @Component
+@Profile("!reactive") // Servlet filter; the reactive deployment uses ReactiveAuthTokenFilter
 public class AuthTokenFilter extends OncePerRequestFilter {
 
   @Autowired // Automatically inject JwtUtils to handle JWT operations
@@ -32,8 +41,29 @@ public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired // Automatically inject UserDetailsServiceImpl to load user details
   private UserDetailsServiceImpl userDetailsService;
 
+  @Autowired // Automatically inject JwtPrincipalCache to skip user lookups for known tokens
+  private JwtPrincipalCache principalCache;
+
+  @Autowired // Automatically inject JwtRevocationList to reject tokens of logged out users
+  private JwtRevocationList revocationList;
+
+  @Value("${jwtStatelessPrincipal:false}") // Build the principal from token claims instead of the database
+  private boolean statelessPrincipal;
+
+  @Autowired // Automatically inject the meter registry to time token verification
+  private MeterRegistry meterRegistry;
+
+  private HotPathTimer verifyTimer; // Times signature and claim verification
+
   private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class); // Logger for logging errors
 
+  private static final KeyedLogRateLimiter failureLog = new KeyedLogRateLimiter(Duration.ofSeconds(10)); // One line per burst of each failure type
+
+  @PostConstruct
+  public void initTimers() {
+    verifyTimer = new HotPathTimer(meterRegistry, "auth.jwt.verify", "JWT signature and claim verification");
+  }
+
   /**
    * Filter method to process the JWT token and set authentication.
    *
@@ -49,13 +79,25 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     try {
       // Parse and validate the JWT token from the request
       String jwt = parseJwt(request);
-      if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-        // Get the username from the validated JWT token
-        String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-        // Load user details from the username
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+      JwtPrincipalCache.Cached cached = jwt != null ? principalCache.get(jwt) : null; // Reuse the principal of an already verified token
+      UserDetails userDetails = null;
+      if (cached != null) {
+        // A request verified just before a revocation may have cached the principal just after it
+        userDetails = revocationList.isRevoked(cached.getClaims()) ? null : cached.getPrincipal();
+      }
+      JwtClaims claims = cached == null && jwt != null ? verifyTimer.record(() -> jwtUtils.verifyJwtToken(jwt)) : null; // Parse and verify once
+      if (claims != null && !revocationList.isRevoked(claims)) {
+        if (statelessPrincipal && claims.getUserId() != null) {
+          // Build the user details straight from the token claims
+          userDetails = UserDetailsImpl.build(claims.getUserId(), claims.getSubject(), claims.getRoles());
+        } else {
+          // Load user details from the username and cache them until the token expires
+          userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+          principalCache.put(jwt, userDetails, claims);
+        }
+      }
 
+      if (userDetails != null) {
         // Create an authentication token with the user details
         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null,
                 userDetails.getAuthorities());
@@ -67,8 +109,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         SecurityContextHolder.getContext().setAuthentication(authentication);
       }
     } catch (Exception e) {
-      // Log any errors that occur during authentication
-      logger.error("Cannot set user authentication: {}", e);
+      // Log errors during authentication without a stack trace per request, at most once per interval and exception type
+      long suppressed = failureLog.acquire(e.getClass().getName());
+      if (suppressed >= 0) {
+        logger.error("Cannot set user authentication: {} ({} more of this type suppressed)", e.toString(), suppressed);
+        logger.debug("Authentication failure", e);
+      }
     }
 
     // Continue the filter chain
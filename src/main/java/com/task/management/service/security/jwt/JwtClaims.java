@@ -0,0 +1,44 @@
+package com.task.management.service.security.jwt;
+
+import java.util.Date; // Import Date for the token expiration
+import java.util.List; // Import List for the role names
+
+/**
+ * Verified claims of a JWT token.
+ */
+public class JwtClaims {
+
+  private final String subject; // Username the token was issued to
+  private final String userId; // Id of the user, null for tokens issued without it
+  private final List<String> roles; // Role names carried by the token, empty if none
+  private final Date issuedAt; // Issue date of the token
+  private final Date expiration; // Expiration of the token, null if it never expires
+
+  public JwtClaims(String subject, String userId, List<String> roles, Date issuedAt, Date expiration) {
+    this.subject = subject;
+    this.userId = userId;
+    this.roles = roles;
+    this.issuedAt = issuedAt;
+    this.expiration = expiration;
+  }
+
+  public String getSubject() {
+    return subject;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public List<String> getRoles() {
+    return roles;
+  }
+
+  public Date getIssuedAt() {
+    return issuedAt;
+  }
+
+  public Date getExpiration() {
+    return expiration;
+  }
+}
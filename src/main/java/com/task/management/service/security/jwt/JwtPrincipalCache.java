@@ -0,0 +1,162 @@
+package com.task.management.service.security.jwt;
+
+import java.util.Date; // Import Date for the token expiration
+import java.util.Iterator; // Import Iterator for size-based eviction
+import java.util.concurrent.ConcurrentHashMap; // Import ConcurrentHashMap for lock-free lookups
+
+import org.springframework.beans.factory.annotation.Value; // Import Value for dependency injection
+import org.springframework.security.core.userdetails.UserDetails; // Import for user details
+import org.springframework.stereotype.Component; // Import Component for Spring component scanning
+
+/**
+ * Bounded cache of principals for already verified JWT tokens.
+ * Entries are keyed by the token signature and live until the configured TTL
+ * or the token expiration, whichever comes first. The verified claims are kept
+ * with the principal, so a hit can still be checked against revocations.
+ */
+@Component // Indicate that this class is a Spring component
+public class JwtPrincipalCache {
+
+  @Value("${jwtPrincipalCacheMaxSize:10000}") // Maximum number of cached principals
+  private int maxSize;
+
+  @Value("${jwtPrincipalCacheTtlMs:300000}") // Maximum time a principal stays cached
+  private long ttlMs;
+
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>(); // Signature -> cached principal
+
+  /**
+   * Get the cached principal for the given token.
+   *
+   * @param token The raw JWT token.
+   * @return The cached principal and claims, or null if the token is not cached or has expired.
+   */
+  public Cached get(String token) {
+    String signature = signatureOf(token);
+    if (signature == null) {
+      return null;
+    }
+
+    Entry entry = entries.get(signature);
+    if (entry == null) {
+      return null;
+    }
+
+    if (entry.expiresAt <= System.currentTimeMillis()) {
+      entries.remove(signature, entry); // Drop the stale entry
+      return null;
+    }
+
+    // A signature only vouches for the exact header and payload it was computed over
+    return entry.token.equals(token) ? entry.cached : null;
+  }
+
+  /**
+   * Cache the principal of a verified token.
+   *
+   * @param token The raw JWT token, already verified by the caller.
+   * @param principal The user details loaded for the token subject.
+   * @param claims The verified claims of the token.
+   */
+  public void put(String token, UserDetails principal, JwtClaims claims) {
+    String signature = signatureOf(token);
+    if (signature == null || maxSize <= 0) {
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    long expiresAt = now + ttlMs;
+    Date expiration = claims.getExpiration();
+    if (expiration != null) {
+      expiresAt = Math.min(expiresAt, expiration.getTime()); // Never outlive the token itself
+    }
+    if (expiresAt <= now) {
+      return;
+    }
+
+    if (entries.size() >= maxSize) {
+      evict(now);
+    }
+    entries.put(signature, new Entry(token, new Cached(principal, claims), expiresAt));
+  }
+
+  /**
+   * Remove every cached principal of the given user, e.g. after their roles or password changed.
+   *
+   * @param username The username of the user.
+   */
+  public void invalidateUser(String username) {
+    entries.values().removeIf(entry -> entry.cached.principal.getUsername().equals(username));
+  }
+
+  /**
+   * Remove every cached principal.
+   */
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  /**
+   * Make room for a new entry, dropping expired entries first and then arbitrary ones.
+   *
+   * @param now The current time in milliseconds.
+   */
+  private void evict(long now) {
+    entries.values().removeIf(entry -> entry.expiresAt <= now);
+
+    // Free a tenth of the capacity so a full cache is not rescanned on every put
+    int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+    Iterator<String> iterator = entries.keySet().iterator();
+    while (excess-- > 0 && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Extract the signature part of a compact JWT.
+   *
+   * @param token The raw JWT token.
+   * @return The signature, or null if the token has no signature part.
+   */
+  private static String signatureOf(String token) {
+    int index = token.lastIndexOf('.');
+    if (index < 0 || index == token.length() - 1) {
+      return null;
+    }
+    return token.substring(index + 1);
+  }
+
+  /**
+   * A cached principal with the verified claims of its token.
+   */
+  public static final class Cached {
+    private final UserDetails principal; // Principal loaded for the token subject
+    private final JwtClaims claims; // Claims the token was verified with
+
+    private Cached(UserDetails principal, JwtClaims claims) {
+      this.principal = principal;
+      this.claims = claims;
+    }
+
+    public UserDetails getPrincipal() {
+      return principal;
+    }
+
+    public JwtClaims getClaims() {
+      return claims;
+    }
+  }
+
+  private static final class Entry {
+    private final String token; // Full token the signature was verified for
+    private final Cached cached; // Principal and claims of the token
+    private final long expiresAt; // Eviction deadline in milliseconds
+
+    private Entry(String token, Cached cached, long expiresAt) {
+      this.token = token;
+      this.cached = cached;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.task.management.service.security.jwt;
+
+import java.util.Date; // Import Date for the token issue date
+import java.util.concurrent.ConcurrentHashMap; // Import ConcurrentHashMap for lock-free lookups
+
+import org.springframework.beans.factory.annotation.Autowired; // Import Autowired for dependency injection
+import org.springframework.beans.factory.annotation.Value; // Import Value for dependency injection
+import org.springframework.stereotype.Component; // Import Component for Spring component scanning
+
+/**
+ * Short-lived list of forced logouts. Every token of a revoked user issued before the
+ * revocation is rejected; entries are dropped once such tokens would have expired anyway.
+ */
+@Component // Indicate that this class is a Spring component
+public class JwtRevocationList {
+
+  @Value("${jwtExpirationMs}") // Tokens never outlive this, so neither do revocations
+  private long jwtExpirationMs;
+
+  @Autowired // Automatically inject the principal cache to drop revoked principals
+  private JwtPrincipalCache principalCache;
+
+  private final ConcurrentHashMap<String, Long> revokedAt = new ConcurrentHashMap<>(); // Username -> revocation millisecond
+
+  /**
+   * Revoke every token issued to the given user so far. Call it after the change that
+   * prompted it is stored, so a login reading the old state got its token before this stamp.
+   *
+   * @param username The username of the user.
+   */
+  public void revokeUser(String username) {
+    long now = System.currentTimeMillis();
+    revokedAt.values().removeIf(millis -> millis + jwtExpirationMs <= now); // Prune entries that outlived every token
+    revokedAt.put(username, now);
+    principalCache.invalidateUser(username);
+  }
+
+  /**
+   * Check whether the given token was issued before its user was revoked. A token issued in
+   * the revocation millisecond itself is rejected too, since it may have been signed from the
+   * state before the change. Tokens without the "iat_ms" claim only have a second-precision
+   * issue date, rounded down, so those issued in the revocation second are rejected as well.
+   *
+   * @param claims The verified claims of the token.
+   * @return True if the token must be rejected.
+   */
+  public boolean isRevoked(JwtClaims claims) {
+    Long millis = revokedAt.get(claims.getSubject());
+    if (millis == null) {
+      return false;
+    }
+
+    Date issuedAt = claims.getIssuedAt();
+    return issuedAt == null || issuedAt.getTime() <= millis;
+  }
+}
@@ -1,20 +1,27 @@
 package com.task.management.service.security.jwt;
 
 import java.security.Key; // Import Key for cryptographic operations
+import java.time.Duration; // Import Duration for the failure log interval
+import java.util.Collections; // Import Collections for the empty role list
 import java.util.Date; // Import Date for handling date and time
+import java.util.List; // Import List for the role claim
+import java.util.stream.Collectors; // Import Collectors for stream operations
 
+import com.task.management.service.observability.KeyedLogRateLimiter;
 import com.task.management.service.security.services.UserDetailsImpl;
 import org.slf4j.Logger; // Import Logger for logging errors and information
 import org.slf4j.LoggerFactory; // Import LoggerFactory for creating Logger instances
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value; // Import Value for dependency injection
 import org.springframework.security.core.Authentication; // Import Authentication for handling user authentication
+import org.springframework.security.core.GrantedAuthority; // Import GrantedAuthority for the role claim
 import org.springframework.stereotype.Component; // Import Component for Spring component scanning
 // Import custom user details implementation
 import io.jsonwebtoken.*; // Import the JJWT library classes for handling JWT
 import io.jsonwebtoken.io.Decoders; // Import Decoders for decoding JWT secret
 import io.jsonwebtoken.security.Keys; // Import Keys for creating keys for JWT signing
+import io.jsonwebtoken.security.SignatureException; // Import SignatureException for tampered tokens
 
+import javax.annotation.PostConstruct; // Import PostConstruct to build the key and parser once
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotEmpty;
 
@@ -26,12 +33,33 @@ public class JwtUtils {
 
   private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class); // Logger for logging errors
 
+  private static final KeyedLogRateLimiter failureLog = new KeyedLogRateLimiter(Duration.ofSeconds(10)); // One line per burst of each failure reason
+
+  static final String USER_ID_CLAIM = "id"; // Claim holding the user's id
+
+  static final String ROLES_CLAIM = "roles"; // Claim holding the user's role names
+
+  static final String ISSUED_AT_MS_CLAIM = "iat_ms"; // Issue date in milliseconds; "iat" only has seconds
+
   @Value("${jwtSecret}") // Inject the JWT secret from application properties
   private String jwtSecret;
 
   @Value("${jwtExpirationMs}") // Inject the JWT expiration time from application properties
   private int jwtExpirationMs;
 
+  private Key signingKey; // HMAC key decoded once from the JWT secret
+
+  private JwtParser jwtParser; // Thread-safe parser bound to the signing key
+
+  /**
+   * Decode the JWT secret and build the signing key and parser once at startup.
+   */
+  @PostConstruct
+  public void init() {
+    signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret)); // Create the signing key
+    jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build(); // Create the reusable parser
+  }
+
   /**
    * Generate a JWT token based on the provided authentication.
    *
@@ -42,24 +70,69 @@ public class JwtUtils {
     // Get the user details from the authentication object
     UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
+    // Collect the role names so the token is self-contained
+    List<String> roles = userPrincipal.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .collect(Collectors.toList());
+
     // Build and return the JWT token
+    Date now = new Date();
     return Jwts.builder()
             .setSubject((userPrincipal.getUsername())) // Set the subject (username)
-            .setIssuedAt(new Date()) // Set the issue date
-            .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs)) // Set the expiration date
-            .signWith(key(), SignatureAlgorithm.HS256)
+            .claim(USER_ID_CLAIM, userPrincipal.getId()) // Set the user id
+            .claim(ROLES_CLAIM, roles) // Set the role names
+            .setIssuedAt(now) // Set the issue date
+            .claim(ISSUED_AT_MS_CLAIM, now.getTime()) // Set the precise issue date for revocation checks
+            .setExpiration(new Date(now.getTime() + jwtExpirationMs)) // Set the expiration date
+            .signWith(signingKey, SignatureAlgorithm.HS256)
             // Sign the token using the secret key and algorithm
             .compact(); // Compact the JWT into a string
   }
 
   /**
-   * Create a signing key from the JWT secret.
+   * Parse and verify the given JWT token exactly once.
    *
-   * @return The signing key as a Key object.
+   * @param token The JWT token.
+   * @return The verified claims, or null if the token is invalid.
+   */
+  public JwtClaims verifyJwtToken(String token) {
+    try {
+      // Parse the token, verify its signature and expiration, and read the claims
+      Claims claims = jwtParser.parseClaimsJws(token).getBody();
+
+      List<?> roles = claims.get(ROLES_CLAIM, List.class);
+      Long issuedAtMs = claims.get(ISSUED_AT_MS_CLAIM, Long.class); // Missing from tokens issued before the claim existed
+      return new JwtClaims(claims.getSubject(),
+              claims.get(USER_ID_CLAIM, String.class),
+              roles != null ? toStrings(roles) : Collections.emptyList(),
+              issuedAtMs != null ? new Date(issuedAtMs) : claims.getIssuedAt(),
+              claims.getExpiration());
+    } catch (MalformedJwtException e) {
+      logFailure("Invalid JWT token", e); // Log invalid token error
+    } catch (ExpiredJwtException e) {
+      logFailure("JWT token is expired", e); // Log expired token error
+    } catch (UnsupportedJwtException e) {
+      logFailure("JWT token is unsupported", e); // Log unsupported token error
+    } catch (SignatureException e) {
+      logFailure("Invalid JWT signature", e); // Log tampered token error
+    } catch (IllegalArgumentException e) {
+      logFailure("JWT claims string is empty", e); // Log empty claims error
+    } catch (JwtException e) {
+      logFailure("JWT token is invalid", e); // Log any other token error
+    }
+
+    return null; // Token is invalid
+  }
+
+  /**
+   * Log a token failure, at most once per interval and reason; clients retrying a bad token would
+   * otherwise write a line per request.
    */
-  private Key key() {
-    // Decode the JWT secret and create a signing key
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+  private static void logFailure(String reason, RuntimeException e) {
+    long suppressed = failureLog.acquire(reason);
+    if (suppressed >= 0) {
+      logger.error("{}: {} ({} more suppressed)", reason, e.getMessage(), suppressed);
+    }
   }
 
   /**
@@ -70,9 +143,7 @@ public class JwtUtils {
    */
   public String getUserNameFromJwtToken(String token) {
     // Parse the JWT token and return the subject (username)
-    String userName = Jwts.parserBuilder().setSigningKey(key()).build()
-            .parseClaimsJws(token).getBody().getSubject();
-    return userName;
+    return jwtParser.parseClaimsJws(token).getBody().getSubject();
   }
 
   /**
@@ -82,23 +153,7 @@ public class JwtUtils {
    * @return True if the token is valid, false otherwise.
    */
   public boolean validateJwtToken(String authToken) {
-    try {
-
-      // Parse the token and verify its signature
-      Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-
-      return true; // Token is valid
-    } catch (MalformedJwtException e) {
-      logger.error("Invalid JWT token: {}", e.getMessage()); // Log invalid token error
-    } catch (ExpiredJwtException e) {
-      logger.error("JWT token is expired: {}", e.getMessage()); // Log expired token error
-    } catch (UnsupportedJwtException e) {
-      logger.error("JWT token is unsupported: {}", e.getMessage()); // Log unsupported token error
-    } catch (IllegalArgumentException e) {
-      logger.error("JWT claims string is empty: {}", e.getMessage()); // Log empty claims error
-    }
-
-    return false; // Token is invalid
+    return verifyJwtToken(authToken) != null;
   }
 
   public String generateToken(@NotEmpty @Email String email) {
@@ -107,24 +162,30 @@ public class JwtUtils {
             .setSubject(email)
             .setIssuedAt(new Date())
             .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // 1 hour validity
-            .signWith(SignatureAlgorithm.HS256, jwtSecret)
+            .signWith(signingKey, SignatureAlgorithm.HS256)
             .compact();
   }
 
   public String extractUsername(String token) {
-    return Jwts.parser()
-            .setSigningKey(jwtSecret)
+    return jwtParser
             .parseClaimsJws(token)
             .getBody()
             .getSubject();
   }
 
   public boolean isTokenExpired(String token) {
-    return Jwts.parser()
-            .setSigningKey(jwtSecret)
+    return jwtParser
             .parseClaimsJws(token)
             .getBody()
             .getExpiration()
             .before(new Date());
   }
+
+  private static List<String> toStrings(List<?> values) {
+    String[] strings = new String[values.size()];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = String.valueOf(values.get(i));
+    }
+    return List.of(strings);
+  }
 }
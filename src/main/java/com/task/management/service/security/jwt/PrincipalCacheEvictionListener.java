@@ -0,0 +1,84 @@
+package com.task.management.service.security.jwt;
+
+import java.util.Objects; // Import Objects for null-safe comparisons
+import java.util.Set; // Import Set for the role names
+import java.util.stream.Collectors; // Import Collectors to collect the role names
+
+import com.task.management.service.models.Role;
+import com.task.management.service.models.User;
+import com.task.management.service.models.UserRoles;
+import org.springframework.beans.factory.annotation.Autowired; // Import Autowired for dependency injection
+import org.springframework.beans.factory.annotation.Value; // Import Value for dependency injection
+import org.springframework.data.mongodb.core.MongoOperations; // Import MongoOperations to read the stored user
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener; // Import for Mongo lifecycle events
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component; // Import Component for Spring component scanning
+
+/**
+ * Evicts cached JWT principals whenever a user document is written, so role and
+ * password changes take effect on the next request. In stateless mode the user's
+ * existing tokens are revoked instead, but only when a save changed the roles or the
+ * password: a signup or an unrelated edit leaves them alone. Updates issued through
+ * MongoTemplate raise no save event, so those write paths must evict the principal
+ * themselves; {@code UserDetailsServiceImpl.updatePassword} only rehashes the same
+ * password and revokes nothing.
+ */
+@Component // Indicate that this class is a Spring component
+public class PrincipalCacheEvictionListener extends AbstractMongoEventListener<User> {
+
+  @Autowired // Automatically inject the principal cache
+  private JwtPrincipalCache principalCache;
+
+  @Autowired // Automatically inject the revocation list
+  private JwtRevocationList revocationList;
+
+  @Autowired // Automatically inject MongoOperations to compare a save with the stored user
+  private MongoOperations mongoOperations;
+
+  @Value("${jwtStatelessPrincipal:false}") // Stateless tokens carry roles, so they must be revoked instead
+  private boolean statelessPrincipal;
+
+  private final ThreadLocal<Boolean> credentialsChanged = new ThreadLocal<>(); // Set before a save, read after it on the same thread
+
+  @Override
+  public void onBeforeConvert(BeforeConvertEvent<User> event) {
+    credentialsChanged.remove(); // A failed save never reached onAfterSave
+    User user = event.getSource();
+    if (!statelessPrincipal || user.getId() == null) {
+      return; // Nothing to revoke, or a new user without tokens
+    }
+
+    User stored = mongoOperations.findById(user.getId(), User.class);
+    credentialsChanged.set(stored != null && (!Objects.equals(stored.getPassword(), user.getPassword())
+            || !roleNames(stored).equals(roleNames(user))));
+  }
+
+  @Override
+  public void onAfterSave(AfterSaveEvent<User> event) {
+    String username = event.getSource().getUsername();
+    boolean changed = Boolean.TRUE.equals(credentialsChanged.get());
+    credentialsChanged.remove();
+    if (changed) {
+      revocationList.revokeUser(username); // Force a new login so the token picks up the new roles; also drops the principal
+    } else {
+      principalCache.invalidateUser(username); // Drop the stale principal of this user
+    }
+  }
+
+  @Override
+  public void onAfterDelete(AfterDeleteEvent<User> event) {
+    principalCache.invalidateAll(); // Delete events only carry the query, not the removed user
+  }
+
+  /**
+   * Collect the role names of the given user.
+   *
+   * @param user The user.
+   * @return The names of the user's roles.
+   */
+  private static Set<UserRoles> roleNames(User user) {
+    return user.getRoles().stream().map(Role::getName).collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,129 @@
+package com.task.management.service.security.services;
+
+import java.util.concurrent.ArrayBlockingQueue; // Import ArrayBlockingQueue for the bounded work queue
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor; // Import ThreadPoolExecutor for the dedicated hashing pool
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.task.management.service.observability.HotPathTimer;
+import io.micrometer.core.instrument.Gauge; // Import Gauge for the queue depth
+import io.micrometer.core.instrument.MeterRegistry; // Import MeterRegistry for the hashing timers
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; // Import BCryptPasswordEncoder for the actual hashing
+import org.springframework.security.crypto.password.PasswordEncoder; // Import PasswordEncoder interface
+
+/**
+ * BCrypt encoder that runs every hash and verification on a small dedicated pool. A login storm can
+ * then only occupy that pool; once its queue is full, callers fail fast with a
+ * {@link PasswordHashingRejectedException} instead of piling up on the request threads.
+ * <p>
+ * Hashing time and queue wait are timed separately ({@code auth.password.hash} and
+ * {@code auth.password.queue}), so a slow login shows whether BCrypt or pool saturation is to blame.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+	private final BCryptPasswordEncoder delegate; // Encoder doing the actual work
+	private final int strength; // Configured BCrypt cost
+	private final int retryAfterSeconds; // Back-off suggested to rejected callers
+	private final ThreadPoolExecutor executor; // Dedicated, bounded hashing pool
+	private final HotPathTimer encodeTimer; // Time spent hashing new passwords
+	private final HotPathTimer matchesTimer; // Time spent verifying passwords
+	private final HotPathTimer queueTimer; // Time spent waiting for a hashing thread
+
+	/**
+	 * @param strength          The BCrypt cost (log rounds).
+	 * @param threads           The number of hashing threads.
+	 * @param queueCapacity     The number of hashes that may wait for a thread.
+	 * @param retryAfterSeconds The back-off suggested when the queue is full.
+	 * @param meterRegistry     The registry for the hashing timers and the queue gauge.
+	 */
+	public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, int retryAfterSeconds,
+			MeterRegistry meterRegistry) {
+		this.delegate = new BCryptPasswordEncoder(strength);
+		this.strength = strength;
+		this.retryAfterSeconds = retryAfterSeconds;
+
+		AtomicInteger counter = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> {
+					Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy()); // Reject instead of running on the caller's thread
+
+		this.encodeTimer = new HotPathTimer(meterRegistry, "auth.password.hash", "BCrypt hashing time",
+				"operation", "encode");
+		this.matchesTimer = new HotPathTimer(meterRegistry, "auth.password.hash", "BCrypt hashing time",
+				"operation", "matches");
+		this.queueTimer = new HotPathTimer(meterRegistry, "auth.password.queue",
+				"Time spent waiting for a password hashing thread");
+		Gauge.builder("auth.password.queue.size", executor, pool -> pool.getQueue().size())
+				.description("Password hashes waiting for a thread")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return run(encodeTimer, () -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	/**
+	 * Rehash whenever the stored cost differs from the configured one, in either direction, so that
+	 * lowering the strength takes effect as well as raising it.
+	 */
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+			return false; // Not a BCrypt hash; leave it alone
+		}
+		try {
+			return Integer.parseInt(encodedPassword.substring(4, 6)) != strength; // "$2a$10$..." -> 10
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Stops the hashing threads; picked up as the destroy method of the bean.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private <T> T run(HotPathTimer timer, Supplier<T> task) {
+		long submitted = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				queueTimer.record(System.nanoTime() - submitted);
+				return timer.record(task);
+			});
+		} catch (RejectedExecutionException e) {
+			throw new PasswordHashingRejectedException(retryAfterSeconds);
+		}
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt(); // Preserve the interrupt for the caller
+			throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package com.task.management.service.security.services;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.PostConstruct; // Import PostConstruct to size the tables once
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value; // Import Value for the limits
+import org.springframework.stereotype.Component; // Import Component for Spring component scanning
+
+/**
+ * Throttles login attempts per client address and per email before any database lookup or BCrypt
+ * verification runs, so credential stuffing is turned away for the cost of a hash and a compare.
+ * <p>
+ * Each scope is a fixed table of token buckets, so memory stays bounded however many addresses or
+ * emails an attacker cycles through. A bucket is a single long holding its theoretical arrival time
+ * (the generic cell rate algorithm), updated by compare-and-set without locks.
+ * <p>
+ * Addresses are hashed to a slot; addresses that share a slot share a bucket, which can only make
+ * their limit stricter, and the hash is seeded per process so collisions cannot be aimed. Emails are
+ * not hashed: sharing a bucket would let an attacker lock a victim out by failing logins for another
+ * email in the same slot. Each email gets a slot of its own from a least recently used table of
+ * {@code loginRateLimitEmailCapacity} entries; an evicted email starts again with a full bucket, which
+ * takes that many other emails tried in between, each of them throttled by its address.
+ */
+@Component // Indicate that this class is a Spring component
+public class LoginRateLimiter {
+
+	@Value("${loginRateLimitEnabled:true}")
+	private boolean enabled;
+
+	@Value("${loginRateLimitSlots:65536}")
+	private int slots; // Buckets per scope, rounded up to a power of two
+
+	@Value("${loginRateLimitIpBurst:20}")
+	private int ipBurst;
+
+	@Value("${loginRateLimitIpPerMinute:60}")
+	private int ipPerMinute;
+
+	@Value("${loginRateLimitEmailBurst:5}")
+	private int emailBurst;
+
+	@Value("${loginRateLimitEmailPerMinute:5}")
+	private int emailPerMinute;
+
+	@Value("${loginRateLimitEmailCapacity:65536}")
+	private int emailCapacity; // Emails tracked at once, rounded up to a power of two
+
+	private final long origin = System.nanoTime(); // Keeps bucket times positive, so an empty slot (0) is a full bucket
+	private final int seed = ThreadLocalRandom.current().nextInt();
+	private final Counter blockedByIp;
+	private final Counter blockedByEmail;
+
+	private Buckets byIp;
+	private Buckets byEmail;
+	private EmailSlots emailSlots;
+
+	public LoginRateLimiter(MeterRegistry registry) {
+		this.blockedByIp = Counter.builder("auth.login.blocked").tag("scope", "ip")
+				.description("Login attempts rejected by the rate limiter").register(registry);
+		this.blockedByEmail = Counter.builder("auth.login.blocked").tag("scope", "email")
+				.description("Login attempts rejected by the rate limiter").register(registry);
+	}
+
+	@PostConstruct
+	public void init() {
+		int ipSize = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+		int emailSize = Integer.highestOneBit(Math.max(1, emailCapacity - 1)) << 1;
+		byIp = new Buckets(ipSize, ipBurst, ipPerMinute);
+		byEmail = new Buckets(emailSize, emailBurst, emailPerMinute);
+		emailSlots = new EmailSlots(emailSize, byEmail);
+	}
+
+	/**
+	 * Take a token from the buckets of the address and the email. Both are checked before either is
+	 * charged, so an attempt rejected for its email does not use up its address's budget.
+	 *
+	 * @param address The client address.
+	 * @param email   The email of the login attempt; compared case-insensitively.
+	 * @return 0 if the attempt may proceed, otherwise the seconds until both buckets allow one.
+	 */
+	public long tryAcquire(String address, String email) {
+		if (!enabled) {
+			return 0;
+		}
+
+		long now = System.nanoTime() - origin;
+		int ipHash = hash(address, seed);
+		int emailSlot = emailSlots.slot(email);
+		while (true) {
+			long ipArrival = byIp.arrival(ipHash);
+			long emailArrival = byEmail.arrival(emailSlot);
+			long ipWait = byIp.wait(ipArrival, now);
+			long emailWait = byEmail.wait(emailArrival, now);
+			if (ipWait > 0 || emailWait > 0) {
+				// Rejected: no write, so a flood costs two reads per attempt
+				(ipWait > 0 ? blockedByIp : blockedByEmail).increment();
+				return toRetryAfterSeconds(Math.max(ipWait, emailWait));
+			}
+			if (!byIp.take(ipHash, ipArrival, now)) {
+				continue; // A concurrent attempt took from the address first; check both again
+			}
+			if (byEmail.take(emailSlot, emailArrival, now)) {
+				return 0;
+			}
+			byIp.giveBack(ipHash); // A concurrent attempt took from the email first
+		}
+	}
+
+	private static long toRetryAfterSeconds(long waitNanos) {
+		return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+	}
+
+	/**
+	 * Seeded, case-insensitive 32-bit hash of the characters (FNV-1a with a murmur finalizer); no copy
+	 * of the string is made.
+	 */
+	static int hash(String key, int seed) {
+		int h = 0x811c9dc5 ^ seed;
+		if (key != null) {
+			for (int i = 0; i < key.length(); i++) {
+				h ^= Character.toLowerCase(key.charAt(i));
+				h *= 0x01000193;
+			}
+		}
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Assigns each email, lower-cased, a slot of its own in the email buckets. Once every slot is taken,
+	 * the least recently seen email gives its slot up, emptied, to the new one.
+	 */
+	static final class EmailSlots {
+		private final LinkedHashMap<String, Integer> slots = new LinkedHashMap<>(16, 0.75f, true); // Access order
+		private final int capacity;
+		private final Buckets buckets;
+
+		EmailSlots(int capacity, Buckets buckets) {
+			this.capacity = capacity;
+			this.buckets = buckets;
+		}
+
+		int slot(String email) {
+			String key = email == null ? "" : email.toLowerCase(Locale.ROOT);
+			synchronized (slots) {
+				Integer slot = slots.get(key);
+				if (slot == null) {
+					if (slots.size() < capacity) {
+						slot = slots.size();
+					} else {
+						Iterator<Map.Entry<String, Integer>> eldest = slots.entrySet().iterator();
+						slot = eldest.next().getValue();
+						eldest.remove();
+						buckets.reset(slot);
+					}
+					slots.put(key, slot);
+				}
+				return slot;
+			}
+		}
+	}
+
+	/**
+	 * One scope: a power-of-two table of buckets, each holding the theoretical arrival time in
+	 * nanoseconds since {@link #origin}.
+	 */
+	static final class Buckets {
+		private final AtomicLongArray arrivals;
+		private final int mask;
+		private final long interval; // Nanoseconds per token
+		private final long tolerance; // How far ahead of now the arrival time may run: burst * interval
+
+		Buckets(int size, int burst, int perMinute) {
+			this.arrivals = new AtomicLongArray(size);
+			this.mask = size - 1;
+			this.interval = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+			this.tolerance = interval * Math.max(1, burst);
+		}
+
+		long arrival(int hash) {
+			return arrivals.get(hash & mask);
+		}
+
+		/**
+		 * @return 0 if a bucket at the given arrival time has a token, otherwise the nanoseconds until it has one.
+		 */
+		long wait(long arrival, long now) {
+			long ahead = Math.max(arrival, now) + interval - now;
+			return ahead > tolerance ? ahead - tolerance : 0;
+		}
+
+		/**
+		 * Takes a token checked with {@link #wait}; false if the bucket changed since its arrival time was read.
+		 */
+		boolean take(int hash, long arrival, long now) {
+			return arrivals.compareAndSet(hash & mask, arrival, Math.max(arrival, now) + interval);
+		}
+
+		/**
+		 * Empties the bucket for a new key; an attempt still holding the slot for the old key charges the new one.
+		 */
+		void reset(int hash) {
+			arrivals.set(hash & mask, 0);
+		}
+
+		/**
+		 * Returns a token taken with {@link #take}. Taking only ever adds the interval, so subtracting it
+		 * undoes the take even if other attempts took tokens in between.
+		 */
+		void giveBack(int hash) {
+			arrivals.addAndGet(hash & mask, -interval);
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.task.management.service.security.services;
+
+/**
+ * Thrown when the password hashing pool is saturated and a hash or verification cannot be queued.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+	private static final long serialVersionUID = 1L; // Serializable version identifier
+
+	private final int retryAfterSeconds; // Suggested client back-off
+
+	public PasswordHashingRejectedException(int retryAfterSeconds) {
+		super("Password hashing capacity exhausted, retry in " + retryAfterSeconds + "s");
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public int getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
@@ -0,0 +1,86 @@
+package com.task.management.service.security.services;
+
+import com.task.management.service.models.Role;
+import com.task.management.service.models.UserRoles;
+import com.task.management.service.repository.RoleRepository;
+import org.springframework.beans.factory.annotation.Autowired; // Import for dependency injection
+import org.springframework.stereotype.Component; // Import for component annotation
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable in-memory registry of the roles collection, loaded once at startup so that
+ * signups and user hydration do not query the roles collection.
+ */
+@Component // Indicates that this class is a Spring component
+public class RoleRegistry {
+
+	@Autowired // Automatically injects RoleRepository bean
+	RoleRepository roleRepository;
+
+	private volatile Map<UserRoles, Role> rolesByName = Collections.emptyMap(); // Role name -> role
+	private volatile Map<String, Role> rolesById = Collections.emptyMap(); // Role id -> role
+
+	/**
+	 * Loads every role from the database.
+	 */
+	@PostConstruct
+	public void load() {
+		Map<UserRoles, Role> byName = new EnumMap<>(UserRoles.class);
+		Map<String, Role> byId = new HashMap<>();
+		for (Role role : roleRepository.findAll()) {
+			byName.put(role.getName(), role);
+			byId.put(role.getId(), role);
+		}
+		publish(byName, byId);
+	}
+
+	/**
+	 * Gets the role with the given name.
+	 *
+	 * @param name The name of the role.
+	 * @return The role.
+	 * @throws RuntimeException if the role does not exist.
+	 */
+	public Role get(UserRoles name) {
+		Role role = rolesByName.get(name);
+		if (role != null) {
+			return role;
+		}
+
+		// The role may have been created after startup; look it up once and remember it
+		role = roleRepository.findByName(name)
+				.orElseThrow(() -> new RuntimeException("Error: Role is not found."));
+		register(role);
+		return role;
+	}
+
+	/**
+	 * Finds the role with the given id.
+	 *
+	 * @param id The id of the role.
+	 * @return An Optional containing the role if found, or empty if not found.
+	 */
+	public Optional<Role> findById(String id) {
+		return Optional.ofNullable(rolesById.get(id));
+	}
+
+	private synchronized void register(Role role) {
+		Map<UserRoles, Role> byName = new EnumMap<>(UserRoles.class);
+		byName.putAll(rolesByName);
+		byName.put(role.getName(), role);
+		Map<String, Role> byId = new HashMap<>(rolesById);
+		byId.put(role.getId(), role);
+		publish(byName, byId);
+	}
+
+	private void publish(Map<UserRoles, Role> byName, Map<String, Role> byId) {
+		rolesById = Collections.unmodifiableMap(byId);
+		rolesByName = Collections.unmodifiableMap(byName);
+	}
+}
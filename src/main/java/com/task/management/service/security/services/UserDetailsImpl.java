@@ -66,6 +66,24 @@ public class UserDetailsImpl implements UserDetails {
 				authorities); // User authorities
 	}
 
+	/**
+	 * Builds a UserDetailsImpl instance from the claims of a verified token, without a database lookup.
+	 * The email and password are not part of the token and are left null.
+	 *
+	 * @param id       The unique identifier of the user.
+	 * @param username The username of the user.
+	 * @param roles    The role names of the user.
+	 * @return A UserDetailsImpl instance.
+	 */
+	public static UserDetailsImpl build(String id, String username, List<String> roles) {
+		// Map the role names to GrantedAuthority
+		List<GrantedAuthority> authorities = roles.stream()
+				.map(SimpleGrantedAuthority::new) // Convert each role name to SimpleGrantedAuthority
+				.collect(Collectors.toList()); // Collect into a list
+
+		return new UserDetailsImpl(id, username, null, null, authorities);
+	}
+
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
 		return authorities; // Return user's authorities
@@ -1,23 +1,49 @@
 package com.task.management.service.security.services;
 // Import UserRepository for user database operations
 import com.task.management.service.models.User;
+import com.task.management.service.observability.HotPathTimer;
 import com.task.management.service.repository.UserRepository;
+import com.task.management.service.security.jwt.JwtPrincipalCache; // Import JwtPrincipalCache to drop the stale principal
+import io.micrometer.core.instrument.MeterRegistry; // Import MeterRegistry for the lookup timer
 import org.springframework.beans.factory.annotation.Autowired; // Import for dependency injection
+import org.springframework.data.mongodb.core.MongoTemplate; // Import MongoTemplate for the password update
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService; // Import for rehash-on-login
 import org.springframework.security.core.userdetails.UserDetails; // Import UserDetails interface
 import org.springframework.security.core.userdetails.UserDetailsService; // Import UserDetailsService interface
 import org.springframework.security.core.userdetails.UsernameNotFoundException; // Import for handling user not found
 import org.springframework.stereotype.Service; // Import for service annotation
 import org.springframework.transaction.annotation.Transactional; // Import for transaction management
 
+import javax.annotation.PostConstruct; // Import PostConstruct to register the timer once
+
 /**
  * Implementation of UserDetailsService to load user-specific data.
  */
 @Service("userDetailsService") // Indicates that this class is a service component
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
 	@Autowired // Automatically injects UserRepository bean
 	UserRepository userRepository;
 
+	@Autowired // Automatically injects MongoTemplate bean
+	MongoTemplate mongoTemplate;
+
+	@Autowired // Automatically injects the principal cache, which repository events do not reach for template updates
+	JwtPrincipalCache principalCache;
+
+	@Autowired // Automatically injects the meter registry to time user lookups
+	MeterRegistry meterRegistry;
+
+	private HotPathTimer loadTimer; // Times loadUserByUsername, including misses
+
+	@PostConstruct
+	public void initTimers() {
+		loadTimer = new HotPathTimer(meterRegistry, "auth.user.load", "User lookup by username");
+	}
+
 	/**
 	 * Loads user details by username.
 	 *
@@ -28,11 +54,32 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 	@Override
 	@Transactional // Ensures that the method is transactional
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		// Attempt to find the user by username
-		User user = userRepository.findByUsername(username)
-				.orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+		return loadTimer.record(() -> {
+			// Attempt to find the user by username
+			User user = userRepository.findByUsername(username)
+					.orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+
+			// Return UserDetails implementation for the found user
+			return UserDetailsImpl.build(user);
+		});
+	}
+
+	/**
+	 * Stores a password rehashed with the current encoder strength after a successful login.
+	 * Only the password field is written, so the user's existing tokens stay valid.
+	 *
+	 * @param user        The authenticated user.
+	 * @param newPassword The rehashed password.
+	 * @return UserDetails carrying the new password.
+	 */
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		mongoTemplate.updateFirst(Query.query(Criteria.where("username").is(user.getUsername())),
+				Update.update("password", newPassword), User.class);
+		principalCache.invalidateUser(user.getUsername()); // Template updates raise no AfterSaveEvent for the eviction listener
 
-		// Return UserDetails implementation for the found user
-		return UserDetailsImpl.build(user);
+		UserDetailsImpl details = (UserDetailsImpl) user;
+		return new UserDetailsImpl(details.getId(), details.getUsername(), details.getEmail(), newPassword,
+				details.getAuthorities());
 	}
 }
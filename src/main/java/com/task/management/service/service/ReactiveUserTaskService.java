@@ -0,0 +1,26 @@
+package com.task.management.service.service;
+
+import com.task.management.service.models.UserTask;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserTaskService {
+
+    Flux<UserTask> getTasksByUserId(String userId);
+
+    Mono<Page<UserTask>> getTasksByUserId(String userId, Pageable pageable);
+
+    Mono<Page<UserTask>> getTasksByUserIdAndStatus(String userId, String status, Pageable pageable);
+
+    Mono<UserTask> createTask(UserTask task);
+
+    Mono<UserTask> getTaskById(String id);
+
+    Mono<TaskWriteResult> updateTask(String id, String userId, UserTask task);
+
+    Mono<TaskWriteResult> deleteTask(String id, String userId);
+
+    Mono<Boolean> updateTaskStatus(String taskId, String userId, String newStatus);
+}
@@ -0,0 +1,77 @@
+package com.task.management.service.service;
+
+import java.util.List;
+
+/**
+ * A write to the tasks of one user, as pushed to the user's change feed subscribers. It names the
+ * changed tasks rather than carrying them; clients refetch what they show.
+ */
+public class TaskChangeEvent {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String STATUS_CHANGED = "status_changed";
+
+    /**
+     * Sent instead of a replay when the missed events are no longer buffered; clients must refetch.
+     */
+    public static final String RESET = "reset";
+
+    /**
+     * At most this many task ids are carried per event; larger bulk writes are marked truncated.
+     */
+    public static final int MAX_TASK_IDS = 100;
+
+    private String id; // Feed position, assigned when the event is published
+    private final String userId;
+    private final String type;
+    private final List<String> taskIds;
+    private final boolean truncated; // True if more tasks changed than taskIds lists
+    private final String stamp; // The user's collection stamp after the write, usable as an ETag
+
+    public TaskChangeEvent(String userId, String type, List<String> taskIds, boolean truncated, String stamp) {
+        this.userId = userId;
+        this.type = type;
+        this.taskIds = taskIds;
+        this.truncated = truncated;
+        this.stamp = stamp;
+    }
+
+    /**
+     * Builds an event for the given tasks, keeping at most {@link #MAX_TASK_IDS} ids.
+     */
+    public static TaskChangeEvent of(String userId, String type, List<String> taskIds, String stamp) {
+        boolean truncated = taskIds.size() > MAX_TASK_IDS;
+        return new TaskChangeEvent(userId, type,
+                List.copyOf(truncated ? taskIds.subList(0, MAX_TASK_IDS) : taskIds), truncated, stamp);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public List<String> getTaskIds() {
+        return taskIds;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public String getStamp() {
+        return stamp;
+    }
+}
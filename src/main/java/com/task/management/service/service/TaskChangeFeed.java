@@ -0,0 +1,339 @@
+package com.task.management.service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans task change events out to Server-Sent-Events subscribers by user.
+ *
+ * <p>Events are published either straight from the service write paths or, when
+ * {@code taskChangeStreamEnabled} is set, by {@link TaskChangeStreamWatcher} from a single shared
+ * change stream, so that writes made on other instances are seen too.
+ *
+ * <p>Every subscriber has a bounded queue drained by a small delivery pool; a subscriber whose
+ * queue overflows, or whose send has been blocked on a full socket for longer than
+ * {@code taskChangeSendTimeoutMs}, is disconnected rather than slowing down publishers. A blocked
+ * send still holds its delivery thread until the container's write timeout
+ * ({@code server.tomcat.connection-timeout}) fails it, so that timeout bounds how long a stuck
+ * client can take a thread away from the others. The last events of each
+ * user are kept so that a reconnecting client passing its Last-Event-ID gets what it missed, or a
+ * {@link TaskChangeEvent#RESET} event when that is no longer possible.
+ */
+@Slf4j
+@Component
+public class TaskChangeFeed {
+
+    @Value("${taskChangeStreamEnabled:false}")
+    private boolean changeStreamEnabled;
+
+    @Value("${taskChangeBufferSize:256}")
+    private int bufferSize;
+
+    @Value("${taskChangeReplaySize:100}")
+    private int replaySize;
+
+    @Value("${taskChangeHeartbeatMs:15000}")
+    private long heartbeatMs;
+
+    @Value("${taskChangeEmitterTimeoutMs:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${taskChangeDeliveryThreads:4}")
+    private int deliveryThreads;
+
+    @Value("${taskChangeSendTimeoutMs:10000}")
+    private long sendTimeoutMs;
+
+    // Event ids are "<epoch>.<channel>-<sequence>". A new epoch per process and a new channel number
+    // whenever a user's channel is recreated make ids from before either unresumable
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+    private final AtomicLong channelNumbers = new AtomicLong();
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    private ExecutorService delivery;
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        delivery = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-change-delivery-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-change-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.close(null)));
+        delivery.shutdownNow();
+    }
+
+    /**
+     * Publishes an event of a local write, unless events come from the change stream instead.
+     */
+    public void publishLocal(TaskChangeEvent event) {
+        if (!changeStreamEnabled) {
+            publish(event);
+        }
+    }
+
+    /**
+     * Delivers the event to the subscribers of its user and keeps it for reconnecting clients.
+     */
+    public void publish(TaskChangeEvent event) {
+        Channel channel = channels.get(event.getUserId());
+        if (channel == null) {
+            return; // Nobody of this user subscribed since the last sweep
+        }
+        synchronized (channel) {
+            event.setId(channel.prefix + "-" + ++channel.sequence);
+            channel.recent.addLast(event);
+            if (channel.recent.size() > replaySize) {
+                channel.recent.removeFirst();
+            }
+            channel.lastEventAt = System.currentTimeMillis();
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Opens a change feed for the user.
+     *
+     * @param userId      The subscribing user.
+     * @param lastEventId The last event the client received before reconnecting, or null.
+     * @return The emitter to return from the controller.
+     */
+    public SseEmitter subscribe(String userId, String lastEventId) {
+        SseEmitter emitter = createEmitter();
+        while (true) {
+            Channel channel = channels.computeIfAbsent(userId,
+                    id -> new Channel(epoch + "." + channelNumbers.incrementAndGet()));
+            synchronized (channel) {
+                if (channels.get(userId) != channel) {
+                    continue; // Swept as idle in the meantime; subscribe to its replacement
+                }
+                register(channel, emitter, userId, lastEventId);
+                return emitter;
+            }
+        }
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(emitterTimeoutMs);
+    }
+
+    /**
+     * Replays what the client missed and adds it to the channel. Called under the channel lock, so no
+     * event is missed or sent twice between the replay and the registration.
+     */
+    private void register(Channel channel, SseEmitter emitter, String userId, String lastEventId) {
+        Subscriber subscriber = new Subscriber(channel, emitter);
+        emitter.onCompletion(() -> subscriber.close(null));
+        emitter.onTimeout(() -> subscriber.close(null));
+        emitter.onError(error -> subscriber.close(null));
+
+        if (lastEventId != null) {
+            List<TaskChangeEvent> missed = missedSince(channel, lastEventId);
+            if (missed == null) {
+                subscriber.offer(new TaskChangeEvent(userId, TaskChangeEvent.RESET, Collections.emptyList(), true, null));
+            } else {
+                missed.forEach(subscriber::offer);
+            }
+        }
+        channel.subscribers.add(subscriber);
+        channel.lastEventAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the buffered events after the given id, or null if some of them were already dropped
+     * or the id was not issued by this channel.
+     */
+    private static List<TaskChangeEvent> missedSince(Channel channel, String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !channel.prefix.equals(lastEventId.substring(0, dash))) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        long oldest = channel.sequence - channel.recent.size() + 1; // Sequence of the first buffered event
+        if (last > channel.sequence || last + 1 < oldest) {
+            return null;
+        }
+        List<TaskChangeEvent> missed = new ArrayList<>((int) (channel.sequence - last));
+        long next = oldest;
+        for (TaskChangeEvent event : channel.recent) {
+            if (next++ > last) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects dead ones, drops subscribers stuck in
+     * a send, and forgets users that have neither subscribers nor recent events.
+     */
+    private void heartbeat() {
+        long now = System.currentTimeMillis();
+        long idleBefore = now - emitterTimeoutMs;
+        long stuckBefore = now - sendTimeoutMs;
+        channels.forEach((userId, channel) -> {
+            synchronized (channel) {
+                for (Subscriber subscriber : channel.subscribers) {
+                    if (subscriber.sendingSince(stuckBefore)) {
+                        log.warn("Dropping task change subscriber stuck in a send for over {} ms", sendTimeoutMs);
+                        subscriber.evict();
+                    } else {
+                        subscriber.offer(Subscriber.HEARTBEAT);
+                    }
+                }
+                if (channel.subscribers.isEmpty() && channel.lastEventAt < idleBefore) {
+                    channels.remove(userId, channel);
+                }
+            }
+        });
+    }
+
+    private static final class Channel {
+        private final String prefix; // Identifies this channel in event ids
+        private final ArrayDeque<TaskChangeEvent> recent = new ArrayDeque<>(); // Guarded by the channel
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private long sequence; // Sequence of the last published event, guarded by the channel
+        private long lastEventAt; // Guarded by the channel
+
+        private Channel(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    private final class Subscriber {
+        private static final String HEARTBEAT = "keep-alive";
+
+        private final Channel channel;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long sendStartedAt; // 0 while no send is in progress
+        private volatile boolean evicted; // Closed without completing the emitter, see evict()
+
+        private Subscriber(Channel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        private void offer(Object item) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(item)) {
+                log.warn("Dropping slow task change subscriber after {} undelivered events", bufferSize);
+                evict();
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                delivery.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Object item;
+                while (!closed.get() && (item = queue.poll()) != null) {
+                    sendStartedAt = System.currentTimeMillis();
+                    try {
+                        if (item == HEARTBEAT) {
+                            emitter.send(SseEmitter.event().comment(HEARTBEAT));
+                        } else {
+                            TaskChangeEvent event = (TaskChangeEvent) item;
+                            SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.getType()).data(event);
+                            if (event.getId() != null) {
+                                builder.id(event.getId());
+                            }
+                            emitter.send(builder);
+                        }
+                    } catch (IOException | IllegalStateException e) {
+                        close(e); // The client went away or the emitter already completed
+                    } finally {
+                        sendStartedAt = 0;
+                    }
+                }
+                scheduled.set(false);
+                // Re-check: an offer may have seen scheduled == true just before it was cleared
+            } while (!closed.get() && !queue.isEmpty() && scheduled.compareAndSet(false, true));
+            if (evicted) {
+                emitter.complete(); // Read after scheduled was cleared, so either this run or the one evict() started sees it
+            }
+        }
+
+        private boolean sendingSince(long before) {
+            long startedAt = sendStartedAt;
+            return startedAt != 0 && startedAt < before;
+        }
+
+        /**
+         * Disconnects the subscriber from any thread. The emitter is completed by the delivery pool:
+         * its methods share one lock, which a blocked send holds, so completing it here could block a
+         * publisher or the heartbeat on a stuck client.
+         */
+        private void evict() {
+            if (closed.compareAndSet(false, true)) {
+                channel.subscribers.remove(this);
+                queue.clear();
+                evicted = true;
+                if (scheduled.compareAndSet(false, true)) {
+                    delivery.execute(this::drain);
+                }
+            }
+        }
+
+        private void close(Throwable cause) {
+            if (closed.compareAndSet(false, true)) {
+                channel.subscribers.remove(this);
+                queue.clear();
+                if (cause != null) {
+                    emitter.completeWithError(cause);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.task.management.service.service;
+
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.task.management.service.service.impl.UserTaskServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds {@link TaskChangeFeed} from one change stream shared by all subscribers of this instance,
+ * so that writes made through any instance reach every client, and drops the written user's pages
+ * from this instance's {@link TaskPageCache}. Requires a replica set.
+ *
+ * <p>The stream watches the per-user collection stamps rather than the tasks: every write path
+ * updates the stamp document of the task owner together with a description of the change, so
+ * even deletes, which carry no task fields, arrive with their user. Only writes that set
+ * {@code lastChange} are task mutations; the stamp document is also written by statistics
+ * refreshes, in-flight marks and the first read of a stamp, and those are filtered out on the server.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "taskChangeStreamEnabled", havingValue = "true")
+public class TaskChangeStreamWatcher {
+
+    private static final long RETRY_DELAY_MS = 1000;
+
+    // Inserts and updates that set lastChange, which only the stamp upsert of a task write does
+    private static final List<Bson> TASK_MUTATIONS = List.of(Aggregates.match(Filters.or(
+            Filters.exists("fullDocument.lastChange"),
+            Filters.exists("updateDescription.updatedFields.lastChange"))));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TaskChangeFeed feed;
+
+    @Autowired
+    private TaskPageCache pageCache;
+
+    private volatile boolean running = true;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<BsonDocument>> cursor;
+    private Thread thread;
+
+    @PostConstruct
+    public void start() {
+        thread = new Thread(this::watch, "task-change-stream");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        MongoChangeStreamCursor<ChangeStreamDocument<BsonDocument>> current = cursor;
+        if (current != null) {
+            current.close();
+        }
+        thread.interrupt();
+    }
+
+    private void watch() {
+        BsonDocument resumeToken = null;
+        while (running) {
+            try {
+                ChangeStreamIterable<BsonDocument> stream = mongoTemplate
+                        .getCollection(UserTaskServiceImpl.COLLECTION_VERSIONS).watch(TASK_MUTATIONS, BsonDocument.class);
+                cursor = (resumeToken != null ? stream.resumeAfter(resumeToken) : stream).cursor();
+                while (running) {
+                    ChangeStreamDocument<BsonDocument> change = cursor.next();
+                    resumeToken = change.getResumeToken(); // Resume after the last delivered change on errors
+                    publish(change);
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Task change stream interrupted, resuming in {} ms: {}", RETRY_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void publish(ChangeStreamDocument<BsonDocument> change) {
+        // Inserts carry the whole stamp document; updates carry exactly the fields this write set,
+        // which is not the case for a later lookup of the document
+        BsonDocument fields = change.getUpdateDescription() != null
+                ? change.getUpdateDescription().getUpdatedFields()
+                : change.getFullDocument();
+        if (fields == null || change.getDocumentKey() == null || !fields.containsKey("stamp") || !fields.containsKey("lastChange")) {
+            return; // Not a task mutation: a stamp created by a read, a statistics refresh or an in-flight mark
+        }
+
+        BsonDocument lastChange = fields.getDocument("lastChange");
+        String type = lastChange.getString("type").getValue();
+        List<String> taskIds = new ArrayList<>();
+        for (BsonValue id : lastChange.getArray("taskIds", new BsonArray())) {
+            taskIds.add(id.asString().getValue());
+        }
+        boolean truncated = lastChange.getBoolean("truncated", BsonBoolean.FALSE).getValue();
+        String userId = change.getDocumentKey().getString("_id").getValue();
+        // The writing instance invalidated its own cache already; this catches up every other one
+        pageCache.invalidate(userId);
+        feed.publish(new TaskChangeEvent(userId, type, taskIds, truncated, fields.getObjectId("stamp").getValue().toHexString()));
+    }
+}
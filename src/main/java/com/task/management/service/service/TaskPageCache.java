@@ -0,0 +1,149 @@
+package com.task.management.service.service;
+
+import com.task.management.service.models.UserTask;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of task pages, grouped per user so that a write only drops the pages of
+ * the user it touched. Users are evicted least recently used first, pages after a TTL.
+ *
+ * <p>Loads race with invalidation: a page read before a write may only be stored after the
+ * write invalidated the user. Invalidation therefore detaches the user's bucket, and a load
+ * only stores into the bucket it started with, so a detached bucket silently drops it.
+ *
+ * <p>The cache is per instance. Writes invalidate it on the instance that made them; writes made
+ * elsewhere only reach it through {@link TaskChangeStreamWatcher}, a moment after they commit. Run
+ * several instances only with {@code taskChangeStreamEnabled}, or with the cache off
+ * ({@code taskPageCacheMaxUsers: 0}): otherwise a page stays stale for up to
+ * {@code taskPageCacheTtlMs} after a write on another instance.
+ */
+@Component
+public class TaskPageCache {
+
+    @Value("${taskPageCacheMaxUsers:10000}")
+    private int maxUsers;
+
+    @Value("${taskPageCacheMaxPagesPerUser:32}")
+    private int maxPagesPerUser;
+
+    @Value("${taskPageCacheTtlMs:30000}")
+    private long ttlMs;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions; // Users dropped to make room
+    private final Counter invalidations; // Users dropped because their tasks changed
+
+    private final Map<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true) { // Access order, for LRU
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            if (size() > maxUsers) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public TaskPageCache(MeterRegistry registry) {
+        this.hits = Counter.builder("task.page.cache").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("task.page.cache").tag("result", "miss").register(registry);
+        this.evictions = Counter.builder("task.page.cache.removals").tag("cause", "capacity")
+                .description("Users whose cached pages were dropped").register(registry);
+        this.invalidations = Counter.builder("task.page.cache.removals").tag("cause", "invalidation")
+                .description("Users whose cached pages were dropped").register(registry);
+        // The map is only safe to read under its lock, which a map size gauge would not take
+        Gauge.builder("task.page.cache.users", this, TaskPageCache::userCount).register(registry);
+    }
+
+    /**
+     * Returns the cached page of the user, loading and caching it on a miss.
+     *
+     * @param userId   The owner of the tasks.
+     * @param status   The status filter, or null for all tasks.
+     * @param pageable The requested page.
+     * @param loader   Reads the page from the database.
+     * @return The page.
+     */
+    public Page<UserTask> get(String userId, String status, Pageable pageable, Supplier<Page<UserTask>> loader) {
+        if (maxUsers <= 0) {
+            return loader.get();
+        }
+
+        String key = status + '|' + pageable.getPageNumber() + '|' + pageable.getPageSize() + '|' + pageable.getSort();
+        Bucket bucket = bucketOf(userId); // Taken before the load, see the class comment
+        long now = System.currentTimeMillis();
+        Entry entry = bucket.pages.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.page;
+        }
+
+        misses.increment();
+        Page<UserTask> page = loader.get();
+        if (!bucket.detached) {
+            if (bucket.pages.size() >= maxPagesPerUser) {
+                bucket.pages.values().removeIf(stale -> stale.expiresAt <= now);
+            }
+            if (bucket.pages.size() < maxPagesPerUser) {
+                bucket.pages.put(key, new Entry(page, now + ttlMs));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Drops every cached page of the user. Call after any write to the user's tasks, local or seen
+     * on the change stream.
+     *
+     * @param userId The owner of the changed tasks.
+     */
+    public void invalidate(String userId) {
+        Bucket bucket;
+        synchronized (buckets) {
+            bucket = buckets.remove(userId);
+        }
+        if (bucket != null) {
+            bucket.detached = true;
+            invalidations.increment();
+        }
+    }
+
+    private int userCount() {
+        synchronized (buckets) {
+            return buckets.size();
+        }
+    }
+
+    private Bucket bucketOf(String userId) {
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(userId, id -> new Bucket());
+        }
+    }
+
+    private static final class Bucket {
+        private final Map<String, Entry> pages = new ConcurrentHashMap<>(); // Page key -> cached page
+        private volatile boolean detached; // Set once the bucket was invalidated
+    }
+
+    private static final class Entry {
+        private final Page<UserTask> page;
+        private final long expiresAt;
+
+        private Entry(Page<UserTask> page, long expiresAt) {
+            this.page = page;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
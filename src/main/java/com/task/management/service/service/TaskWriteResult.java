@@ -0,0 +1,43 @@
+package com.task.management.service.service;
+
+import com.task.management.service.models.UserTask;
+
+/**
+ * Outcome of an owner-scoped write to a single task.
+ */
+public class TaskWriteResult {
+
+    public enum Outcome {
+        OK,
+        NOT_FOUND,
+        FORBIDDEN,
+        CONFLICT
+    }
+
+    private final Outcome outcome;
+    private final UserTask task;
+
+    private TaskWriteResult(Outcome outcome, UserTask task) {
+        this.outcome = outcome;
+        this.task = task;
+    }
+
+    public static TaskWriteResult ok(UserTask task) {
+        return new TaskWriteResult(Outcome.OK, task);
+    }
+
+    public static TaskWriteResult of(Outcome outcome) {
+        return new TaskWriteResult(outcome, null);
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * The written task, or null unless the outcome is {@link Outcome#OK}.
+     */
+    public UserTask getTask() {
+        return task;
+    }
+}
@@ -1,11 +1,18 @@
 package com.task.management.service.service;
 
+import com.task.management.service.dto.TaskCursor;
+import com.task.management.service.dto.TaskSearchHit;
+import com.task.management.service.dto.TaskSummaryDTO;
 import com.task.management.service.models.UserTask;
+import com.task.management.service.payload.response.BulkItemResult;
+import com.task.management.service.payload.response.TaskStats;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserTaskService {
 
@@ -15,13 +22,33 @@ public interface UserTaskService {
 
     Page<UserTask> getTasksByUserIdAndStatus(String userId, String status, Pageable pageable);
 
+    Page<TaskSummaryDTO> getTaskSummariesByUserId(String userId, String status, Pageable pageable);
+
+    TaskStats getTaskStats(String userId);
+
+    Slice<TaskSearchHit> searchTasks(String userId, String text, TaskCursor cursor, int size);
+
+    Stream<UserTask> streamTasksByUserId(String userId, String status);
+
+    Slice<UserTask> getTasksByUserIdAfter(String userId, String status, String sortKey, TaskCursor cursor, int size);
+
     UserTask createTask(UserTask task);
 
+    List<BulkItemResult> createTasks(String userId, List<UserTask> tasks);
+
+    List<BulkItemResult> updateTasks(String userId, List<UserTask> tasks);
+
+    List<BulkItemResult> deleteTasks(String userId, List<String> ids);
+
     Optional<UserTask> getTaskById(String id);
 
-    UserTask updateTask(String id, UserTask task);
+    Optional<UserTask> getTaskVersion(String id);
+
+    String getTaskCollectionVersion(String userId);
+
+    TaskWriteResult updateTask(String id, String userId, UserTask task);
 
-    void deleteTask(String id);
+    TaskWriteResult deleteTask(String id, String userId);
 
-	boolean updateTaskStatus(String taskId, String newStatus);
+	boolean updateTaskStatus(String taskId, String userId, String newStatus);
 }
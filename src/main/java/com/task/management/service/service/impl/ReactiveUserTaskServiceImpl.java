@@ -0,0 +1,172 @@
+package com.task.management.service.service.impl;
+
+import com.task.management.service.models.TaskOutboxEvent;
+import com.task.management.service.models.UserTask;
+import com.task.management.service.repository.ReactiveTaskRepository;
+import com.task.management.service.service.ReactiveUserTaskService;
+import com.task.management.service.service.TaskChangeEvent;
+import com.task.management.service.service.TaskWriteResult;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Function;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking implementation of the task operations, mirroring {@link UserTaskServiceImpl}.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveUserTaskServiceImpl implements ReactiveUserTaskService {
+
+    @Autowired
+    private ReactiveTaskRepository taskRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Value("${taskOutboxEnabled:false}")
+    private boolean outboxEnabled;
+
+    @Value("${taskStatsCountersEnabled:true}")
+    private boolean statsCountersEnabled;
+
+    @Value("${taskStatsZone:UTC}")
+    private ZoneId statsZone;
+
+    public Flux<UserTask> getTasksByUserId(String userId) {
+        return taskRepository.findByUserId(userId);
+    }
+
+    public Mono<Page<UserTask>> getTasksByUserId(String userId, Pageable pageable) {
+        return taskRepository.findByUserId(userId, pageable).collectList()
+                .zipWith(taskRepository.countByUserId(userId),
+                        (tasks, total) -> new PageImpl<>(tasks, pageable, total));
+    }
+
+    public Mono<Page<UserTask>> getTasksByUserIdAndStatus(String userId, String status, Pageable pageable) {
+        return taskRepository.findByUserIdAndStatus(userId, status, pageable).collectList()
+                .zipWith(taskRepository.countByUserIdAndStatus(userId, status),
+                        (tasks, total) -> new PageImpl<>(tasks, pageable, total));
+    }
+
+    public Mono<UserTask> createTask(UserTask task) {
+        String error = UserTaskServiceImpl.validationError(task);
+        if (error != null) {
+            log.error("Validation failed: {}", error);
+            return Mono.error(new IllegalArgumentException(error));
+        }
+        task.setVersion(null); // Always insert; the version is assigned by the database layer
+        task.setLastModified(Instant.now());
+        return countedWrite(task.getUserId(), delta -> taskRepository.save(task)
+                        .flatMap(created -> onTasksChanged(created.getUserId(), TaskChangeEvent.CREATED, List.of(created.getId()),
+                                created.getVersion(), delta.added(created)).thenReturn(created)))
+                .doOnNext(created -> log.info("Task created with ID: {}", created.getId()));
+    }
+
+    public Mono<UserTask> getTaskById(String id) {
+        return taskRepository.findById(id);
+    }
+
+    public Mono<TaskWriteResult> updateTask(String id, String userId, UserTask task) {
+        Query query = UserTaskServiceImpl.ownedBy(userId, id);
+        if (task.getVersion() != null) {
+            // Optimistic locking: only apply the update to the version the client has seen
+            query.addCriteria(Criteria.where("version").is(task.getVersion()));
+        }
+        Instant now = Instant.now();
+        return countedWrite(userId, delta -> mongoTemplate.findAndModify(query, UserTaskServiceImpl.fullUpdate(task, now),
+                                FindAndModifyOptions.options().returnNew(false), UserTask.class)
+                        .flatMap(previous -> {
+                            UserTask updated = UserTaskServiceImpl.afterUpdate(previous, task, now);
+                            return onTasksChanged(userId, TaskChangeEvent.UPDATED, List.of(id), updated.getVersion(),
+                                            delta.removed(previous).added(updated))
+                                    .thenReturn(TaskWriteResult.ok(updated));
+                        }))
+                .switchIfEmpty(Mono.defer(() -> classifyMiss(id, userId, task.getVersion())));
+    }
+
+    public Mono<TaskWriteResult> deleteTask(String id, String userId) {
+        return countedWrite(userId, delta -> mongoTemplate.findAndRemove(UserTaskServiceImpl.ownedBy(userId, id), UserTask.class)
+                        .flatMap(removed -> onTasksChanged(userId, TaskChangeEvent.DELETED, List.of(id),
+                                UserTaskServiceImpl.nextVersion(removed), delta.removed(removed))
+                                .thenReturn(TaskWriteResult.ok(null))))
+                .switchIfEmpty(Mono.defer(() -> classifyMiss(id, userId, null)));
+    }
+
+    public Mono<Boolean> updateTaskStatus(String taskId, String userId, String newStatus) {
+        Instant now = Instant.now();
+        return countedWrite(userId, delta -> mongoTemplate.findAndModify(UserTaskServiceImpl.ownedBy(userId, taskId),
+                                UserTaskServiceImpl.statusUpdate(newStatus, now), FindAndModifyOptions.options().returnNew(false), UserTask.class)
+                        .flatMap(previous -> {
+                            UserTask changed = UserTaskServiceImpl.afterStatusUpdate(previous, newStatus, now);
+                            return onTasksChanged(userId, TaskChangeEvent.STATUS_CHANGED, List.of(taskId), changed.getVersion(),
+                                    delta.removed(previous).added(changed))
+                                    .thenReturn(true);
+                        }))
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Records the outbox events of reactive writes and keeps the per-user stamp and statistics
+     * counters used by the servlet deployment in step with them.
+     */
+    private Mono<Void> onTasksChanged(String userId, String type, List<String> taskIds, Long taskVersion, TaskStatsDelta delta) {
+        TaskChangeEvent event = TaskChangeEvent.of(userId, type, taskIds, new ObjectId().toHexString());
+        Mono<Void> outbox = outboxEnabled
+                ? mongoTemplate.insert(UserTaskServiceImpl.outboxEvents(userId, type, taskIds, null, taskVersion),
+                        TaskOutboxEvent.class).then()
+                : Mono.empty();
+        // Deferred, so the delta only counts as applied once the stamp upsert is really sent
+        return outbox.then(Mono.defer(() -> mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)),
+                UserTaskServiceImpl.collectionVersionUpdate(event, delta), UserTaskServiceImpl.COLLECTION_VERSIONS))).then();
+    }
+
+    /**
+     * Runs a write that moves the statistics counters, marked in flight on the user's stamp document
+     * like the servlet writes, and ends the mark afterwards unless the write's stamp upsert did.
+     */
+    private <T> Mono<T> countedWrite(String userId, Function<TaskStatsDelta, Mono<T>> write) {
+        if (!statsCountersEnabled) {
+            return write.apply(TaskStatsDelta.reset()); // Drops the counters, so they cannot be stale if enabled again
+        }
+        Query stamp = Query.query(Criteria.where("_id").is(userId));
+        return mongoTemplate.upsert(stamp, UserTaskServiceImpl.beginWriteUpdate(), UserTaskServiceImpl.COLLECTION_VERSIONS)
+                .then(Mono.usingWhen(Mono.fromSupplier(() -> TaskStatsDelta.on(LocalDate.now(statsZone))), write,
+                        delta -> delta.isInFlight()
+                                ? mongoTemplate.updateFirst(stamp, UserTaskServiceImpl.endWriteUpdate(), UserTaskServiceImpl.COLLECTION_VERSIONS)
+                                : Mono.empty()));
+    }
+
+    /**
+     * Explains why an owner-scoped write matched nothing; only runs on the failure path.
+     */
+    private Mono<TaskWriteResult> classifyMiss(String id, String userId, Long expectedVersion) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("userId").include("version");
+        return mongoTemplate.findOne(query, UserTask.class)
+                .map(existing -> !userId.equals(existing.getUserId())
+                        ? TaskWriteResult.of(TaskWriteResult.Outcome.FORBIDDEN)
+                        : TaskWriteResult.of(expectedVersion != null
+                                ? TaskWriteResult.Outcome.CONFLICT
+                                : TaskWriteResult.Outcome.NOT_FOUND))
+                .defaultIfEmpty(TaskWriteResult.of(TaskWriteResult.Outcome.NOT_FOUND));
+    }
+}
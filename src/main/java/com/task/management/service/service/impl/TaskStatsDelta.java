@@ -0,0 +1,129 @@
+package com.task.management.service.service.impl;
+
+import com.task.management.service.models.UserTask;
+import com.task.management.service.repository.TaskRepositoryCustomImpl;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Changes to a user's statistics counters caused by one write, applied with $inc in the same
+ * update as the user's new stamp. The due date buckets are counted for the given day, exactly
+ * as the statistics aggregation counts them. The same update ends the write's in-flight mark.
+ */
+final class TaskStatsDelta {
+
+    private static final String STATUS_PREFIX = "s_";
+    private static final String NULL_STATUS = "nullStatus"; // Tasks without status; unprefixed, so no status maps to it
+
+    private final LocalDate today;
+    private final Map<String, Long> increments = new LinkedHashMap<>(); // Counter field -> change
+    private final boolean reset; // The old states are unknown, so the counters are dropped instead
+    private boolean applied; // Handed to a stamp upsert, which ends the write's in-flight mark
+
+    private TaskStatsDelta(LocalDate today, boolean reset) {
+        this.today = today;
+        this.reset = reset;
+    }
+
+    static TaskStatsDelta on(LocalDate today) {
+        return new TaskStatsDelta(today, false);
+    }
+
+    /**
+     * Drops the counters; the next statistics refresh recomputes them with the aggregation. Such a
+     * write is never marked in flight.
+     */
+    static TaskStatsDelta reset() {
+        return new TaskStatsDelta(null, true);
+    }
+
+    TaskStatsDelta added(UserTask task) {
+        count(task, 1);
+        return this;
+    }
+
+    TaskStatsDelta removed(UserTask task) {
+        count(task, -1);
+        return this;
+    }
+
+    void applyTo(Update update) {
+        if (reset) {
+            update.unset(UserTaskServiceImpl.COUNTERS);
+            return;
+        }
+        increments.forEach((field, by) -> {
+            if (by != 0) {
+                update.inc(UserTaskServiceImpl.COUNTERS + "." + field, by);
+            }
+        });
+        update.inc(UserTaskServiceImpl.WRITES_IN_FLIGHT, -1);
+        applied = true;
+    }
+
+    /**
+     * Whether the write was marked in flight and no stamp upsert has ended that yet.
+     */
+    boolean isInFlight() {
+        return !reset && !applied;
+    }
+
+    private void count(UserTask task, long sign) {
+        if (reset) {
+            return;
+        }
+        increment("total", sign);
+        increment("byStatus." + statusField(task.getStatus()), sign);
+        if (!TaskRepositoryCustomImpl.COMPLETED.equals(task.getStatus())) {
+            // A missing due date sorts before every date in the aggregation, so it counts as overdue there too
+            if (task.getDueDate() == null || task.getDueDate().isBefore(today)) {
+                increment("overdue", sign);
+            } else if (task.getDueDate().isBefore(today.plusDays(7))) {
+                increment("dueThisWeek", sign);
+            }
+        }
+    }
+
+    private void increment(String field, long by) {
+        increments.merge(field, by, Long::sum);
+    }
+
+    /**
+     * Statuses are client-supplied, so they are escaped before being used as field names. Tasks
+     * without status get a field of their own, apart from a status that happens to be "none".
+     */
+    static String statusField(String status) {
+        if (status == null) {
+            return NULL_STATUS;
+        }
+        return STATUS_PREFIX + status.replace("%", "%25").replace(".", "%2E").replace("$", "%24");
+    }
+
+    /**
+     * The status counted in a field written by {@link #statusField}, null for tasks without status.
+     */
+    static String statusOf(String field) {
+        if (NULL_STATUS.equals(field)) {
+            return null;
+        }
+        return field.substring(STATUS_PREFIX.length()).replace("%24", "$").replace("%2E", ".").replace("%25", "%");
+    }
+
+    /**
+     * The counters document for freshly aggregated statistics, whose tasks without status are under
+     * the null key.
+     */
+    static Document counters(LocalDate asOf, long total, Map<String, Long> byStatus, long overdue, long dueThisWeek) {
+        Document statuses = new Document();
+        byStatus.forEach((status, count) -> statuses.append(statusField(status), count));
+        return new Document("asOf", asOf.toString())
+                .append("total", total)
+                .append("overdue", overdue)
+                .append("dueThisWeek", dueThisWeek)
+                .append("byStatus", statuses);
+    }
+}
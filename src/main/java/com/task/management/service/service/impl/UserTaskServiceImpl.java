@@ -1,26 +1,113 @@
 package com.task.management.service.service.impl;
 
+import com.task.management.service.dto.TaskCursor;
+import com.task.management.service.dto.TaskSearchHit;
+import com.task.management.service.dto.TaskSummaryDTO;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.task.management.service.models.TaskOutboxEvent;
 import com.task.management.service.models.UserTask;
+import com.task.management.service.payload.response.BulkItemResult;
+import com.task.management.service.payload.response.TaskStats;
 import com.task.management.service.repository.TaskRepository;
+import com.task.management.service.service.TaskChangeEvent;
+import com.task.management.service.service.TaskChangeFeed;
+import com.task.management.service.service.TaskPageCache;
+import com.task.management.service.service.TaskWriteResult;
 import com.task.management.service.service.UserTaskService;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Slf4j
 @Service
 public class UserTaskServiceImpl implements UserTaskService {
 
+    /**
+     * One document per user: the stamp that changes on every write to that user's tasks, the last
+     * change, and the user's statistics counters. Keeping them together makes the stamp upsert the
+     * only bookkeeping write per task write, and a statistics refresh a single _id lookup.
+     */
+    public static final String COLLECTION_VERSIONS = "task_collection_versions";
+
+    /**
+     * Field of the {@link #COLLECTION_VERSIONS} document holding the statistics counters.
+     */
+    static final String COUNTERS = "counters";
+
+    /**
+     * Fields of the {@link #COLLECTION_VERSIONS} document marking counted writes that have begun but
+     * not yet reached their stamp upsert; see {@link #beginWrite}.
+     */
+    static final String WRITES_IN_FLIGHT = "writesInFlight";
+    static final String LAST_WRITE_BEGUN_AT = "lastWriteBegunAt";
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TaskPageCache pageCache;
+
+    @Autowired
+    private TaskChangeFeed changeFeed;
+
+    @Value("${taskBulkChunkSize:1000}")
+    private int bulkChunkSize;
+
+    @Value("${taskStatsCountersEnabled:true}")
+    private boolean statsCountersEnabled;
+
+    @Value("${taskStatsZone:UTC}") // The zone whose midnight starts a new day for overdue and due this week
+    private ZoneId statsZone;
+
+    @Value("${taskStatsWriteTimeoutMs:60000}") // After this, a write still marked in flight is taken to have died
+    private long statsWriteTimeoutMs;
+
+    @Value("${taskOutboxEnabled:false}")
+    private boolean outboxEnabled;
+
+    @Autowired(required = false) // Only present with taskOutboxTransactional
+    private TransactionTemplate outboxTransaction;
+
     public List<UserTask> getTasksByUserId(String userId) {
         log.info("Fetching tasks for user: {}", userId);
         List<UserTask> tasks = taskRepository.findByUserId(userId);
@@ -32,7 +119,7 @@ public class UserTaskServiceImpl implements UserTaskService {
 
     public Page<UserTask> getTasksByUserId(String userId, Pageable pageable) {
         log.info("Fetching paginated tasks for user: {}", userId);
-        Page<UserTask> tasks = taskRepository.findByUserId(userId, pageable);
+        Page<UserTask> tasks = pageCache.get(userId, null, pageable, () -> taskRepository.findByUserId(userId, pageable));
         if (tasks.isEmpty()) {
             log.warn("No tasks found for user: {} on page: {}", userId, pageable.getPageNumber());
         }
@@ -41,17 +128,166 @@ public class UserTaskServiceImpl implements UserTaskService {
 
     public Page<UserTask> getTasksByUserIdAndStatus(String userId, String status, Pageable pageable) {
         log.info("Fetching paginated tasks for user: {} with status: {}", userId, status);
-        Page<UserTask> tasks = taskRepository.findByUserIdAndStatus(userId, status, pageable);
+        Page<UserTask> tasks = pageCache.get(userId, status, pageable,
+                () -> taskRepository.findByUserIdAndStatus(userId, status, pageable));
         if (tasks.isEmpty()) {
             log.warn("No tasks found for user: {} with status: {} on page: {}", userId, status, pageable.getPageNumber());
         }
         return tasks;
     }
 
+    public Page<TaskSummaryDTO> getTaskSummariesByUserId(String userId, String status, Pageable pageable) {
+        log.info("Fetching paginated task summaries for user: {} with status: {}", userId, status);
+        return status != null
+                ? taskRepository.findSummaryByUserIdAndStatus(userId, status, pageable)
+                : taskRepository.findSummaryByUserId(userId, pageable);
+    }
+
+    /**
+     * Returns the user's task statistics. With counters enabled a refresh is one _id lookup: every
+     * single-task write moves the counters with $inc in its stamp upsert. The aggregation only runs
+     * when there are no counters for today, i.e. on the first refresh, after a bulk update and after
+     * midnight in taskStatsZone, when tasks move into overdue.
+     *
+     * <p>Its result is only stored if the stamp read before it is still current and no counted write
+     * is in flight. Otherwise a write that reached the tasks before the aggregation, but its stamp
+     * upsert only after the store, would be counted twice. A result that cannot be stored is still
+     * returned; the next refresh aggregates again.
+     */
+    public TaskStats getTaskStats(String userId) {
+        LocalDate today = today();
+        if (!statsCountersEnabled) {
+            return taskRepository.aggregateStats(userId, today).labelled();
+        }
+
+        Document summary = collectionSummary(userId);
+        Document counters = summary.get(COUNTERS, Document.class);
+        if (counters != null && today.toString().equals(counters.getString("asOf"))) {
+            return fromCounters(today, counters);
+        }
+
+        log.info("Recomputing task statistics for user: {}", userId);
+        ObjectId stamp = summary.getObjectId("stamp");
+        TaskStats stats = taskRepository.aggregateStats(userId, today);
+        Criteria settled = new Criteria().orOperator(Criteria.where(WRITES_IN_FLIGHT).not().gt(0),
+                Criteria.where(LAST_WRITE_BEGUN_AT).lt(Instant.now().minusMillis(statsWriteTimeoutMs)));
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId).and("stamp").is(stamp).andOperator(settled)),
+                Update.update(COUNTERS, TaskStatsDelta.counters(today, stats.getTotal(), stats.getByStatus(),
+                        stats.getOverdue(), stats.getDueThisWeek())),
+                COLLECTION_VERSIONS);
+        return stats.labelled();
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(statsZone);
+    }
+
+    /**
+     * Starts a write that moves the counters and returns its counter changes, to be filled in once
+     * the write's effect is known. The write is first marked in flight on the user's stamp document
+     * (one more round trip), so a statistics refresh does not store an aggregation it overlaps; the
+     * write's stamp upsert clears the mark, or {@link #endWrite} if none follows. With counters
+     * disabled nothing is marked and the write drops the counters instead, so they cannot be stale
+     * if counters are enabled again.
+     */
+    private TaskStatsDelta beginWrite(String userId) {
+        if (!statsCountersEnabled) {
+            return TaskStatsDelta.reset();
+        }
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)), beginWriteUpdate(), COLLECTION_VERSIONS);
+        return TaskStatsDelta.on(today());
+    }
+
+    /**
+     * Clears the in-flight mark of a write whose changes never reached a stamp upsert: it missed, or
+     * failed, or its transaction rolled back.
+     */
+    private void endWrite(String userId, TaskStatsDelta delta) {
+        if (delta.isInFlight()) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)), endWriteUpdate(), COLLECTION_VERSIONS);
+        }
+    }
+
+    static Update beginWriteUpdate() {
+        return new Update().inc(WRITES_IN_FLIGHT, 1)
+                .set(LAST_WRITE_BEGUN_AT, Instant.now())
+                .setOnInsert("stamp", new ObjectId()); // Readers expect every stamp document to have one
+    }
+
+    static Update endWriteUpdate() {
+        return new Update().inc(WRITES_IN_FLIGHT, -1);
+    }
+
+    public Slice<TaskSearchHit> searchTasks(String userId, String text, TaskCursor cursor, int size) {
+        log.info("Searching tasks for user: {} after cursor: {}", userId, cursor != null);
+        Double lastScore = null;
+        if (cursor != null) {
+            if (!TaskCursor.SCORE.equals(cursor.getSortKey()) || cursor.getValue() == null) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort.");
+            }
+            try {
+                lastScore = Double.valueOf(cursor.getValue());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor.", e);
+            }
+        }
+        return taskRepository.searchByUserId(userId, text, lastScore, cursor != null ? cursor.getId() : null, size);
+    }
+
+    private static TaskStats fromCounters(LocalDate today, Document counters) {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        counters.get("byStatus", Document.class).forEach((field, count) -> {
+            long value = ((Number) count).longValue();
+            if (value > 0) { // Statuses whose last task changed status or was deleted stay behind as zero
+                byStatus.put(TaskStatsDelta.statusOf(field), value);
+            }
+        });
+        return new TaskStats(today,
+                counters.get("total", Number.class).longValue(),
+                byStatus,
+                counters.get("overdue", Number.class).longValue(),
+                counters.get("dueThisWeek", Number.class).longValue()).labelled();
+    }
+
+    /**
+     * Streams the user's tasks straight from a database cursor; the caller must close the stream.
+     */
+    public Stream<UserTask> streamTasksByUserId(String userId, String status) {
+        log.info("Streaming tasks for user: {} with status: {}", userId, status);
+        return status != null
+                ? taskRepository.streamByUserIdAndStatus(userId, status)
+                : taskRepository.streamByUserId(userId);
+    }
+
+    public Slice<UserTask> getTasksByUserIdAfter(String userId, String status, String sortKey, TaskCursor cursor, int size) {
+        if (log.isInfoEnabled()) { // Three arguments allocate a varargs array even when INFO is off
+            log.info("Fetching tasks for user: {} sorted by: {} after cursor: {}", userId, sortKey, cursor != null);
+        }
+        if (cursor != null && !cursor.getSortKey().equals(sortKey)) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort.");
+        }
+        Object lastValue = cursor != null ? parseSortValue(sortKey, cursor.getValue()) : null;
+        String lastId = cursor != null ? cursor.getId() : null;
+        return taskRepository.findByUserIdAfter(userId, status, sortKey, lastValue, lastId, size);
+    }
+
     public UserTask createTask(UserTask task) {
-        log.info("Creating task: {}", task);
+        log.info("Creating task for user: {}", task.getUserId()); // Not the task itself: its toString includes the description
         validateTask(task);
-        UserTask createdTask = taskRepository.save(task);
+        task.setVersion(null); // Always insert; the version is assigned by the database layer
+        task.setLastModified(Instant.now());
+        TaskStatsDelta delta = beginWrite(task.getUserId());
+        UserTask createdTask;
+        try {
+            createdTask = inTransaction(() -> {
+                UserTask created = taskRepository.save(task);
+                onTasksChanged(created.getUserId(), TaskChangeEvent.CREATED, List.of(created.getId()), created,
+                        created.getVersion(), delta.added(created));
+                return created;
+            });
+        } finally {
+            endWrite(task.getUserId(), delta);
+        }
         log.info("Task created with ID: {}", createdTask.getId());
         return createdTask;
     }
@@ -65,59 +301,520 @@ public class UserTaskServiceImpl implements UserTaskService {
         return task;
     }
 
-    public UserTask updateTask(String id, UserTask task) {
-        log.info("Updating task with ID: {}", id);
-        if (!taskRepository.existsById(id)) {
-            log.error("Task with ID: {} not found for update", id);
-            throw new IllegalArgumentException("Task not found");
+    public Optional<UserTask> getTaskVersion(String id) {
+        // Only what a conditional GET needs, so unchanged tasks are answered without loading them
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("userId").include("version");
+        return Optional.ofNullable(mongoTemplate.findOne(query, UserTask.class));
+    }
+
+    /**
+     * Returns the stamp of the user's tasks. It is read before the tasks themselves, so a
+     * response can carry an older stamp than its data but never a newer one.
+     */
+    public String getTaskCollectionVersion(String userId) {
+        return collectionSummary(userId).getObjectId("stamp").toHexString();
+    }
+
+    private Document collectionSummary(String userId) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        Document summary = mongoTemplate.findOne(query, Document.class, COLLECTION_VERSIONS);
+        if (summary == null) {
+            // First read since stamps were introduced: create one without overwriting a concurrent write
+            summary = mongoTemplate.findAndModify(query, new Update().setOnInsert("stamp", new ObjectId()),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, COLLECTION_VERSIONS);
         }
+        return summary;
+    }
+
+    public TaskWriteResult updateTask(String id, String userId, UserTask task) {
+        log.info("Updating task with ID: {}", id);
         validateTaskUpdate(task);
-        task.setId(id);
-        UserTask updatedTask = taskRepository.save(task);
+        Query query = ownedBy(userId, id);
+        if (task.getVersion() != null) {
+            // Optimistic locking: only apply the update to the version the client has seen
+            query.addCriteria(Criteria.where("version").is(task.getVersion()));
+        }
+        TaskStatsDelta delta = beginWrite(userId);
+        UserTask updatedTask;
+        try {
+            updatedTask = inTransaction(() -> {
+                // The task before the write is what the counters have to be taken back for
+                Instant now = Instant.now();
+                UserTask previous = mongoTemplate.findAndModify(query, fullUpdate(task, now),
+                        FindAndModifyOptions.options().returnNew(false), UserTask.class);
+                if (previous == null) {
+                    return null;
+                }
+                UserTask updated = afterUpdate(previous, task, now);
+                onTasksChanged(userId, TaskChangeEvent.UPDATED, List.of(id), updated, updated.getVersion(),
+                        delta.removed(previous).added(updated));
+                return updated;
+            });
+        } finally {
+            endWrite(userId, delta);
+        }
+        if (updatedTask == null) {
+            TaskWriteResult.Outcome outcome = classifyMiss(id, userId, task.getVersion());
+            log.error("Task with ID: {} not updated: {}", id, outcome);
+            return TaskWriteResult.of(outcome);
+        }
         log.info("Task updated with ID: {}", updatedTask.getId());
-        return updatedTask;
+        return TaskWriteResult.ok(updatedTask);
     }
 
-    public void deleteTask(String id) {
+    public TaskWriteResult deleteTask(String id, String userId) {
         log.info("Deleting task with ID: {}", id);
-        if (!taskRepository.existsById(id)) {
-            log.error("Task with ID: {} not found for deletion", id);
-            throw new IllegalArgumentException("Task not found");
+        TaskStatsDelta delta = beginWrite(userId);
+        UserTask deleted;
+        try {
+            deleted = inTransaction(() -> {
+                UserTask removed = mongoTemplate.findAndRemove(ownedBy(userId, id), UserTask.class);
+                if (removed != null) {
+                    onTasksChanged(userId, TaskChangeEvent.DELETED, List.of(id), null, nextVersion(removed),
+                            delta.removed(removed));
+                }
+                return removed;
+            });
+        } finally {
+            endWrite(userId, delta);
+        }
+        if (deleted == null) {
+            TaskWriteResult.Outcome outcome = classifyMiss(id, userId, null);
+            log.error("Task with ID: {} not deleted: {}", id, outcome);
+            return TaskWriteResult.of(outcome);
         }
-        taskRepository.deleteById(id);
         log.info("Task with ID: {} has been deleted", id);
+        return TaskWriteResult.ok(null);
+    }
+
+    /**
+     * Explains why an owner-scoped write matched nothing. Only runs on the failure path,
+     * so successful writes stay a single round-trip.
+     */
+    private TaskWriteResult.Outcome classifyMiss(String id, String userId, Long expectedVersion) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("userId").include("version");
+        UserTask existing = mongoTemplate.findOne(query, UserTask.class);
+        if (existing == null) {
+            return TaskWriteResult.Outcome.NOT_FOUND;
+        }
+        if (!userId.equals(existing.getUserId())) {
+            return TaskWriteResult.Outcome.FORBIDDEN;
+        }
+        // The task is there and owned, so the filter can only have failed on the version
+        return expectedVersion != null ? TaskWriteResult.Outcome.CONFLICT : TaskWriteResult.Outcome.NOT_FOUND;
+    }
+
+    public List<BulkItemResult> createTasks(String userId, List<UserTask> tasks) {
+        log.info("Bulk creating {} tasks for user: {}", tasks.size(), userId);
+        BulkItemResult[] results = new BulkItemResult[tasks.size()];
+        for (int from = 0; from < tasks.size(); from += bulkChunkSize) {
+            int to = Math.min(from + bulkChunkSize, tasks.size());
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserTask.class);
+            List<Integer> submitted = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                UserTask task = tasks.get(i);
+                String error = validationError(task);
+                if (error != null) {
+                    results[i] = new BulkItemResult(i, null, "invalid", error);
+                    continue;
+                }
+                // Assign ids up front so every item can be reported, and never trust client ids
+                task.setId(new ObjectId().toHexString());
+                task.setUserId(userId);
+                task.setVersion(0L);
+                task.setLastModified(Instant.now());
+                bulk.insert(task);
+                submitted.add(i);
+            }
+
+            if (submitted.isEmpty()) {
+                continue;
+            }
+            TaskStatsDelta delta = beginWrite(userId);
+            try {
+                Map<Integer, String> errors = execute(bulk, submitted).errors;
+                List<String> created = new ArrayList<>(submitted.size());
+                for (int i : submitted) {
+                    String error = errors.get(i);
+                    if (error == null) {
+                        created.add(tasks.get(i).getId());
+                        delta.added(tasks.get(i));
+                    }
+                    results[i] = error == null
+                            ? new BulkItemResult(i, tasks.get(i).getId(), "created", null)
+                            : new BulkItemResult(i, null, "failed", error);
+                }
+                if (!created.isEmpty()) {
+                    onTasksChanged(userId, TaskChangeEvent.CREATED, created, null, 0L, delta);
+                }
+            } finally {
+                endWrite(userId, delta);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    public List<BulkItemResult> updateTasks(String userId, List<UserTask> tasks) {
+        log.info("Bulk updating {} tasks for user: {}", tasks.size(), userId);
+        BulkItemResult[] results = new BulkItemResult[tasks.size()];
+        for (int from = 0; from < tasks.size(); from += bulkChunkSize) {
+            int to = Math.min(from + bulkChunkSize, tasks.size());
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserTask.class);
+            List<Integer> submitted = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                UserTask task = tasks.get(i);
+                if (!StringUtils.hasText(task.getId())) {
+                    results[i] = new BulkItemResult(i, null, "invalid", "Id is required.");
+                    continue;
+                }
+                // The owner is part of the filter, so tasks of other users are never matched
+                bulk.updateOne(ownedBy(userId, task.getId()), fullUpdate(task, Instant.now()));
+                submitted.add(i);
+            }
+
+            BulkOutcome outcome = execute(bulk, submitted);
+            List<String> written = new ArrayList<>(submitted.size());
+            for (int i : submitted) {
+                if (!outcome.errors.containsKey(i)) {
+                    written.add(tasks.get(i).getId());
+                }
+            }
+            // When every update without an error matched, the bulk result alone settles each item;
+            // only a shortfall needs a lookup of which of the ids are tasks of the user
+            Set<String> matched = outcome.result != null && outcome.result.getMatchedCount() == written.size()
+                    ? new HashSet<>(written)
+                    : ownedIds(userId, written);
+            List<String> updated = new ArrayList<>(submitted.size());
+            for (int i : submitted) {
+                String id = tasks.get(i).getId();
+                String error = outcome.errors.get(i);
+                if (error == null && matched.contains(id)) {
+                    updated.add(id);
+                }
+                results[i] = error != null ? new BulkItemResult(i, id, "failed", error)
+                        : matched.contains(id) ? new BulkItemResult(i, id, "updated", null)
+                        : new BulkItemResult(i, id, "not_found", "Task not found");
+            }
+            if (!updated.isEmpty()) {
+                // The bulk result does not say what the tasks were before, so the counters are recomputed
+                onTasksChanged(userId, TaskChangeEvent.UPDATED, updated, null, (Long) null, TaskStatsDelta.reset());
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    public List<BulkItemResult> deleteTasks(String userId, List<String> ids) {
+        log.info("Bulk deleting {} tasks for user: {}", ids.size(), userId);
+        BulkItemResult[] results = new BulkItemResult[ids.size()];
+        for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+            int to = Math.min(from + bulkChunkSize, ids.size());
+            int valid = 0;
+            for (int i = from; i < to; i++) {
+                if (StringUtils.hasText(ids.get(i))) {
+                    valid++;
+                } else {
+                    results[i] = new BulkItemResult(i, null, "invalid", "Id is required.");
+                }
+            }
+
+            if (valid == 0) {
+                continue;
+            }
+            // One owner-scoped findAndRemove per id: each reply is the removed task itself, so the
+            // report, the counters and the event versions follow what was actually removed, and an id
+            // listed twice or deleted concurrently elsewhere is removed and reported only once
+            TaskStatsDelta delta = beginWrite(userId);
+            try {
+                List<String> deleted = new ArrayList<>(valid);
+                List<Long> versions = new ArrayList<>(valid);
+                for (int i = from; i < to; i++) {
+                    if (results[i] != null) {
+                        continue;
+                    }
+                    String id = ids.get(i);
+                    UserTask removed = mongoTemplate.findAndRemove(removalOf(userId, id), UserTask.class);
+                    if (removed == null) {
+                        results[i] = new BulkItemResult(i, id, "not_found", "Task not found");
+                        continue;
+                    }
+                    deleted.add(id);
+                    versions.add(nextVersion(removed));
+                    delta.removed(removed);
+                    results[i] = new BulkItemResult(i, id, "deleted", null);
+                }
+                if (!deleted.isEmpty()) {
+                    onTasksChanged(userId, TaskChangeEvent.DELETED, deleted, null, versions, delta);
+                }
+            } finally {
+                endWrite(userId, delta);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Single hook for everything derived from a user's tasks; every write path calls it after the
+     * write reached the database. The outbox events join the write's transaction, if any; the
+     * cache, stamp and change feed are only touched once the write is visible to readers.
+     *
+     * @param snapshot    the task after the write if the write path has it, attached to the outbox event
+     * @param taskVersion the version of every changed task after the write, null if the write path does not know it
+     * @param delta       the write's changes to the statistics counters, applied with the new stamp
+     */
+    private void onTasksChanged(String userId, String type, List<String> taskIds, UserTask snapshot, Long taskVersion,
+                                TaskStatsDelta delta) {
+        onTasksChanged(userId, type, taskIds, snapshot, Collections.nCopies(taskIds.size(), taskVersion), delta);
+    }
+
+    /**
+     * @param taskVersions the version of each changed task after the write, in the order of the ids
+     */
+    private void onTasksChanged(String userId, String type, List<String> taskIds, UserTask snapshot, List<Long> taskVersions,
+                                TaskStatsDelta delta) {
+        if (outboxEnabled) {
+            mongoTemplate.insert(outboxEvents(userId, type, taskIds, snapshot, taskVersions), TaskOutboxEvent.class);
+        }
+
+        TaskChangeEvent event = TaskChangeEvent.of(userId, type, taskIds, new ObjectId().toHexString());
+        Runnable publish = () -> {
+            // The cache goes first: a stamp must never be served with a page cached before the write
+            pageCache.invalidate(userId);
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)), collectionVersionUpdate(event, delta), COLLECTION_VERSIONS);
+            changeFeed.publishLocal(event);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
+    /**
+     * One outbox event per changed task. The task version orders the events of one task; the event
+     * ids cannot, since they are only in write order within one instance.
+     */
+    static List<TaskOutboxEvent> outboxEvents(String userId, String type, List<String> taskIds, UserTask snapshot,
+                                              Long taskVersion) {
+        return outboxEvents(userId, type, taskIds, snapshot, Collections.nCopies(taskIds.size(), taskVersion));
+    }
+
+    static List<TaskOutboxEvent> outboxEvents(String userId, String type, List<String> taskIds, UserTask snapshot,
+                                              List<Long> taskVersions) {
+        Instant now = Instant.now();
+        List<TaskOutboxEvent> events = new ArrayList<>(taskIds.size());
+        for (int i = 0; i < taskIds.size(); i++) {
+            TaskOutboxEvent event = new TaskOutboxEvent();
+            event.setUserId(userId);
+            event.setTaskId(taskIds.get(i));
+            event.setType(type);
+            event.setTask(snapshot);
+            event.setTaskVersion(taskVersions.get(i));
+            event.setOccurredAt(now);
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * Runs a single-task write and its outbox event in one transaction when taskOutboxTransactional
+     * is set. Bulk writes are not wrapped: a write error aborts a whole MongoDB transaction, which
+     * would break their per-item results.
+     */
+    private <T> T inTransaction(Supplier<T> write) {
+        return outboxTransaction != null ? outboxTransaction.execute(status -> write.get()) : write.get();
+    }
+
+    /**
+     * Runs an unordered bulk write and maps its write errors back to request indexes.
+     */
+    private BulkOutcome execute(BulkOperations bulk, List<Integer> submitted) {
+        if (submitted.isEmpty()) {
+            return new BulkOutcome(Collections.emptyMap(), null);
+        }
+        try {
+            return new BulkOutcome(Collections.emptyMap(), bulk.execute());
+        } catch (BulkOperationException e) {
+            Map<Integer, String> errors = new HashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(submitted.get(error.getIndex()), error.getMessage());
+            }
+            log.error("Bulk write finished with {} errors", errors.size());
+            return new BulkOutcome(errors, e.getResult());
+        }
+    }
+
+    private static final class BulkOutcome {
+        private final Map<Integer, String> errors; // Request index -> write error
+        private final BulkWriteResult result; // Counts of the writes that succeeded, null if nothing was sent
+
+        private BulkOutcome(Map<Integer, String> errors, BulkWriteResult result) {
+            this.errors = errors;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Returns which of the given ids belong to tasks of the user, reading only the ids.
+     */
+    private Set<String> ownedIds(String userId, List<String> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Query query = Query.query(Criteria.where("id").in(ids).and("userId").is(userId));
+        query.fields().include("id");
+        return mongoTemplate.find(query, UserTask.class).stream()
+                .map(UserTask::getId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Replaces the editable fields of a task and bumps its version; the id and owner are kept.
+     */
+    static Update fullUpdate(UserTask task, Instant now) {
+        return Update.update("title", task.getTitle())
+                .set("description", task.getDescription())
+                .set("dueDate", task.getDueDate())
+                .set("status", task.getStatus())
+                .set("lastModified", now)
+                .inc("version", 1);
+    }
+
+    static Update statusUpdate(String status, Instant now) {
+        return Update.update("status", status)
+                .set("lastModified", now)
+                .inc("version", 1);
+    }
+
+    /**
+     * The task as {@link #fullUpdate} leaves it, built from the task before the write.
+     */
+    static UserTask afterUpdate(UserTask previous, UserTask task, Instant now) {
+        UserTask updated = afterWrite(previous, now);
+        updated.setTitle(task.getTitle());
+        updated.setDescription(task.getDescription());
+        updated.setDueDate(task.getDueDate());
+        updated.setStatus(task.getStatus());
+        return updated;
+    }
+
+    /**
+     * The task as {@link #statusUpdate} leaves it, built from the task before the write.
+     */
+    static UserTask afterStatusUpdate(UserTask previous, String status, Instant now) {
+        UserTask updated = afterWrite(previous, now);
+        updated.setTitle(previous.getTitle());
+        updated.setDescription(previous.getDescription());
+        updated.setDueDate(previous.getDueDate());
+        updated.setStatus(status);
+        return updated;
+    }
+
+    private static UserTask afterWrite(UserTask previous, Instant now) {
+        UserTask updated = new UserTask();
+        updated.setId(previous.getId());
+        updated.setUserId(previous.getUserId());
+        updated.setVersion(nextVersion(previous));
+        updated.setLastModified(now);
+        return updated;
+    }
+
+    /**
+     * The version following the task's, which an update gives it and its deletion is recorded with.
+     */
+    static long nextVersion(UserTask previous) {
+        return previous.getVersion() != null ? previous.getVersion() + 1 : 1L; // $inc on a missing field sets it
+    }
+
+    /**
+     * Sets a new stamp and records the change, which is what the change stream of the stamps reports,
+     * and applies the write's changes to the statistics counters.
+     */
+    static Update collectionVersionUpdate(TaskChangeEvent event, TaskStatsDelta delta) {
+        Update update = Update.update("stamp", new ObjectId(event.getStamp()))
+                .set("lastChange", new Document("type", event.getType())
+                        .append("taskIds", event.getTaskIds())
+                        .append("truncated", event.isTruncated()));
+        delta.applyTo(update);
+        return update;
+    }
+
+    static Query ownedBy(String userId, String id) {
+        return Query.query(Criteria.where("id").is(id).and("userId").is(userId));
+    }
+
+    /**
+     * Owner-scoped removal of one task that returns only the fields its counters and event version need.
+     */
+    static Query removalOf(String userId, String id) {
+        Query query = ownedBy(userId, id);
+        query.fields().include("status").include("dueDate").include("version");
+        return query;
     }
 
     private void validateTask(UserTask task) {
+        String error = validationError(task);
+        if (error != null) {
+            log.error("Validation failed: {}", error);
+            throw new IllegalArgumentException(error);
+        }
+        log.debug("Task validation passed.");
+    }
+
+    static String validationError(UserTask task) {
         if (!StringUtils.hasText(task.getTitle())) {
-            log.error("Validation failed: Title is required.");
-            throw new IllegalArgumentException("Title is required.");
+            return "Title is required.";
         }
         if (task.getDueDate() == null) {
-            log.error("Validation failed: Due date is required.");
-            throw new IllegalArgumentException("Due date is required.");
+            return "Due date is required.";
+        }
+        return null;
+    }
+
+    private Object parseSortValue(String sortKey, String value) {
+        if (value == null || "id".equals(sortKey)) {
+            return value;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
         }
-        log.info("Task validation passed.");
     }
 
     private void validateTaskUpdate(UserTask task) {
         // Add validation logic for updates if necessary
-        log.info("Task update validation passed.");
+        log.debug("Task update validation passed.");
     }
 
 	
 	// Method to update the status of a task
 	@Override
-    public boolean updateTaskStatus(String taskId, String newStatus) {
-        // Find the task by ID
-        UserTask task = taskRepository.findById(taskId).orElse(null);
-        if (task == null) {
-            return false; // Task not found
+    public boolean updateTaskStatus(String taskId, String userId, String newStatus) {
+        // Set the status in a single conditional update, matching only tasks of the owner; the task
+        // before the write says which counters the old status and due date were counted in
+        TaskStatsDelta delta = beginWrite(userId);
+        try {
+            return inTransaction(() -> {
+                Instant now = Instant.now();
+                UserTask previous = mongoTemplate.findAndModify(ownedBy(userId, taskId), statusUpdate(newStatus, now),
+                        FindAndModifyOptions.options().returnNew(false), UserTask.class);
+                if (previous == null) {
+                    return false; // The task was not found
+                }
+                UserTask changed = afterStatusUpdate(previous, newStatus, now);
+                onTasksChanged(userId, TaskChangeEvent.STATUS_CHANGED, List.of(taskId), changed, changed.getVersion(),
+                        delta.removed(previous).added(changed));
+                return true;
+            });
+        } finally {
+            endWrite(userId, delta);
         }
-
-        // Update the status
-        task.setStatus(newStatus);
-        taskRepository.save(task); // Save the updated task
-        return true; // Successfully updated
     }
 }
@@ -0,0 +1,33 @@
+package com.task.management.service.service.outbox;
+
+import com.task.management.service.models.TaskOutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes every event as a Spring application event, for in-process {@code @EventListener}s
+ * of {@link TaskOutboxEvent}. A listener that throws fails the delivery, which is then retried.
+ * Opt-in with {@code taskOutboxListenerSinkEnabled}: without listeners it would mark every event
+ * dispatched without delivering it anywhere.
+ */
+@Component
+@ConditionalOnProperty(name = "taskOutboxListenerSinkEnabled", havingValue = "true")
+public class ApplicationEventOutboxSink implements TaskOutboxSink {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Override
+    public String name() {
+        return "listener";
+    }
+
+    @Override
+    public void deliver(List<TaskOutboxEvent> events) {
+        events.forEach(publisher::publishEvent);
+    }
+}
@@ -0,0 +1,54 @@
+package com.task.management.service.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.task.management.service.models.TaskOutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events as NDJSON to a local file and forces them to disk before reporting success.
+ */
+@Component
+@ConditionalOnProperty(name = "taskOutboxFile")
+public class FileOutboxSink implements TaskOutboxSink {
+
+    @Value("${taskOutboxFile}")
+    private Path file;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void deliver(List<TaskOutboxEvent> events) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TaskOutboxEvent.class);
+        StringBuilder lines = new StringBuilder();
+        for (TaskOutboxEvent event : events) {
+            lines.append(writer.writeValueAsString(event)).append('\n');
+        }
+
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.task.management.service.service.outbox;
+
+import com.task.management.service.models.TaskOutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drains the task outbox to the configured sinks.
+ *
+ * <p>Only the instance holding the dispatcher lease dispatches. The lease is renewed before every
+ * delivery and dispatching stops as soon as that fails, so a single delivery has to finish within
+ * {@code taskOutboxLeaseMs}. A run pages through the pending events by id, which is write order within
+ * one instance but only to the second across instances, so within each page the events of a task are
+ * put into task version order. Events are only picked up {@code taskOutboxSettleMs} after they
+ * occurred, which gives a concurrent write of the same task on another instance time to insert its
+ * event first. An outbox insert delayed beyond that can still arrive after a later version of its
+ * task, and bulk updates and deletes carry no version; consumers that need strict order compare
+ * {@code taskVersion}.
+ *
+ * <p>Each batch is first offered to every sink as a whole; if that fails, its events are retried one
+ * by one in order, and once an event of a task fails the later events of that task wait for it.
+ * Events of other tasks are not held back.
+ *
+ * <p>An event is marked dispatched only after every sink accepted it, so every recorded event is
+ * delivered at least once. Recording itself is only atomic with the task write when
+ * {@code taskOutboxTransactional} is set, and then only for single-task writes; by default, and
+ * always for bulk writes, an event is lost if the process stops between the write and its outbox
+ * insert.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "taskOutboxEnabled", havingValue = "true")
+public class TaskOutboxDispatcher {
+
+    private static final String LEASES = "task_outbox_lease";
+    private static final String LEASE_ID = "dispatcher";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private List<TaskOutboxSink> sinks;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${taskOutboxBatchSize:500}")
+    private int batchSize;
+
+    @Value("${taskOutboxLeaseMs:30000}")
+    private long leaseMs;
+
+    @Value("${taskOutboxMaxAttempts:10}")
+    private int maxAttempts;
+
+    @Value("${taskOutboxRetryBackoffMs:1000}")
+    private long retryBackoffMs;
+
+    @Value("${taskOutboxSettleMs:500}")
+    private long settleMs;
+
+    private final String owner = new ObjectId().toHexString(); // Identifies this instance in the lease
+
+    private Counter dispatched;
+    private Counter failed;
+    private Counter dead;
+    private volatile double lagSeconds; // Age of the oldest pending event as of the last run
+    private volatile double pending; // Pending events as of the last run
+
+    @PostConstruct
+    public void registerMeters() {
+        dispatched = Counter.builder("task.outbox.dispatched").register(registry);
+        failed = Counter.builder("task.outbox.failed").register(registry);
+        dead = Counter.builder("task.outbox.dead").register(registry);
+        Gauge.builder("task.outbox.lag.seconds", this, dispatcher -> dispatcher.lagSeconds).register(registry);
+        Gauge.builder("task.outbox.pending", this, dispatcher -> dispatcher.pending).register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${taskOutboxPollMs:1000}")
+    public void dispatch() {
+        if (!acquireLease()) {
+            return;
+        }
+
+        // Page through everything pending in id order; a task blocked on an earlier page stays blocked
+        Set<String> blocked = new HashSet<>(); // Tasks whose earlier event is still waiting for a retry
+        Instant settled = Instant.now().minusMillis(settleMs);
+        List<TaskOutboxEvent> batch;
+        String after = null;
+        boolean leaseHeld = true;
+        do {
+            Query page = pendingQuery(after).addCriteria(Criteria.where("occurredAt").lte(settled));
+            batch = mongoTemplate.find(page.limit(batchSize), TaskOutboxEvent.class);
+            if (!batch.isEmpty()) {
+                leaseHeld = dispatch(batch, blocked);
+                after = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize && leaseHeld);
+
+        updateLag();
+    }
+
+    /**
+     * Delivers the batch, skipping the events of blocked tasks; false if the lease was lost on the way.
+     */
+    private boolean dispatch(List<TaskOutboxEvent> batch, Set<String> blocked) {
+        Instant now = Instant.now();
+        List<TaskOutboxEvent> ready = new ArrayList<>(batch.size());
+        for (TaskOutboxEvent event : inVersionOrder(batch)) {
+            if (blocked.contains(event.getTaskId())) {
+                continue;
+            }
+            if (event.getNextAttemptAt() != null && event.getNextAttemptAt().isAfter(now)) {
+                blocked.add(event.getTaskId());
+                continue;
+            }
+            ready.add(event);
+        }
+        if (ready.isEmpty()) {
+            return true;
+        }
+
+        if (!acquireLease()) {
+            return false;
+        }
+        if (deliver(ready) == null) {
+            markDispatched(ready);
+            return true;
+        }
+
+        // Isolate the failing events, keeping the order per task
+        List<TaskOutboxEvent> done = new ArrayList<>(ready.size());
+        for (TaskOutboxEvent event : ready) {
+            if (blocked.contains(event.getTaskId())) {
+                continue;
+            }
+            if (!acquireLease()) {
+                log.warn("Outbox dispatcher lease lost; stopping after {} events", done.size());
+                markDispatched(done);
+                return false;
+            }
+            Exception error = deliver(List.of(event));
+            if (error == null) {
+                done.add(event);
+            } else {
+                blocked.add(event.getTaskId());
+                recordFailure(event, error);
+            }
+        }
+        markDispatched(done);
+        return true;
+    }
+
+    /**
+     * The batch with the versioned events of each task sorted by version, in the positions its
+     * versioned events held; events without a version keep their place.
+     */
+    static List<TaskOutboxEvent> inVersionOrder(List<TaskOutboxEvent> batch) {
+        Map<String, List<Integer>> positions = new HashMap<>(); // Task id -> positions of its versioned events
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i).getTaskVersion() != null) {
+                positions.computeIfAbsent(batch.get(i).getTaskId(), taskId -> new ArrayList<>(2)).add(i);
+            }
+        }
+        List<TaskOutboxEvent> ordered = new ArrayList<>(batch);
+        for (List<Integer> slots : positions.values()) {
+            if (slots.size() > 1) {
+                List<TaskOutboxEvent> events = new ArrayList<>(slots.size());
+                slots.forEach(i -> events.add(batch.get(i)));
+                events.sort(Comparator.comparing(TaskOutboxEvent::getTaskVersion));
+                for (int j = 0; j < slots.size(); j++) {
+                    ordered.set(slots.get(j), events.get(j));
+                }
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Delivers to every sink; returns the first failure, or null if all sinks accepted the events.
+     */
+    private Exception deliver(List<TaskOutboxEvent> events) {
+        for (TaskOutboxSink sink : sinks) {
+            try {
+                sink.deliver(events);
+            } catch (Exception e) {
+                log.warn("Outbox sink {} rejected {} events: {}", sink.name(), events.size(), e.getMessage());
+                return e;
+            }
+        }
+        return null;
+    }
+
+    private void markDispatched(List<TaskOutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(events.size());
+        events.forEach(event -> ids.add(event.getId()));
+        mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(ids)),
+                Update.update("dispatchedAt", Instant.now()), TaskOutboxEvent.class);
+        dispatched.increment(events.size());
+    }
+
+    private void recordFailure(TaskOutboxEvent event, Exception error) {
+        failed.increment();
+        int attempts = event.getAttempts() + 1;
+        Update update = Update.update("attempts", attempts).set("lastError", String.valueOf(error.getMessage()));
+        if (attempts >= maxAttempts) {
+            // Parked for manual inspection; later events of the task are no longer held back
+            update.set("deadAt", Instant.now());
+            dead.increment();
+            log.error("Outbox event {} of task {} gave up after {} attempts", event.getId(), event.getTaskId(), attempts);
+        } else {
+            // Exponential backoff, capped at 64 times the base delay
+            long delay = retryBackoffMs << Math.min(attempts - 1, 6);
+            update.set("nextAttemptAt", Instant.now().plusMillis(delay));
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(event.getId())), update, TaskOutboxEvent.class);
+    }
+
+    private void updateLag() {
+        TaskOutboxEvent oldest = mongoTemplate.findOne(pendingQuery(null).limit(1), TaskOutboxEvent.class);
+        lagSeconds = oldest == null ? 0 : Duration.between(oldest.getOccurredAt(), Instant.now()).toMillis() / 1000.0;
+        pending = mongoTemplate.count(pendingQuery(null), TaskOutboxEvent.class);
+    }
+
+    /**
+     * Pending events in id order, after the given id if not null.
+     */
+    private static Query pendingQuery(String after) {
+        Criteria criteria = Criteria.where("dispatchedAt").is(null).and("deadAt").is(null);
+        if (after != null) {
+            criteria.and("id").gt(new ObjectId(after));
+        }
+        return Query.query(criteria).with(Sort.by("id"));
+    }
+
+    /**
+     * Takes or extends the dispatcher lease; false if another instance holds it.
+     */
+    private boolean acquireLease() {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(LEASE_ID)
+                .orOperator(Criteria.where("owner").is(owner), Criteria.where("lockedUntil").lt(now)));
+        Update update = Update.update("owner", owner).set("lockedUntil", now.plusMillis(leaseMs));
+        try {
+            mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().upsert(true), org.bson.Document.class, LEASES);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false; // The lease exists and is held by another instance
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.task.management.service.service.outbox;
+
+import com.task.management.service.models.TaskOutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of dispatched outbox events. Recorded events are delivered at least once: after a
+ * failure the same events are delivered again, possibly to sinks that already received them, so
+ * consumers must deduplicate by event id. See {@link TaskOutboxDispatcher} for when an event can be
+ * lost before it is recorded.
+ */
+public interface TaskOutboxSink {
+
+    /**
+     * Name used in logs and metrics.
+     */
+    String name();
+
+    /**
+     * Delivers the events in the given order; throws if any of them was not accepted.
+     */
+    void deliver(List<TaskOutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,62 @@
+package com.task.management.service.service.outbox;
+
+import com.task.management.service.models.TaskOutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * POSTs each batch as a JSON array to a webhook; any non-2xx response fails the delivery.
+ *
+ * <p>The dispatcher lease must outlive a delivery, so the sink has its own client whose connect and
+ * read timeouts together stay below {@code taskOutboxLeaseMs}, instead of the shared RestTemplate,
+ * which waits forever.
+ */
+@Component
+@ConditionalOnProperty(name = "taskOutboxWebhookUrl")
+public class WebhookOutboxSink implements TaskOutboxSink {
+
+    @Value("${taskOutboxWebhookUrl}")
+    private String url;
+
+    @Value("${taskOutboxWebhookTimeoutMs:10000}")
+    private long timeoutMs;
+
+    @Value("${taskOutboxLeaseMs:30000}")
+    private long leaseMs;
+
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+
+    private RestTemplate restTemplate;
+
+    @PostConstruct
+    public void init() {
+        if (2 * timeoutMs >= leaseMs) {
+            throw new IllegalStateException("taskOutboxWebhookTimeoutMs (" + timeoutMs + ") must be less than half of taskOutboxLeaseMs ("
+                    + leaseMs + "): a connect and a read timeout in a row would outlast the dispatcher lease");
+        }
+        restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(timeoutMs))
+                .setReadTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(List<TaskOutboxEvent> events) {
+        // RestTemplate throws on 4xx and 5xx responses
+        restTemplate.postForEntity(url, events, Void.class);
+    }
+}
@@ -0,0 +1,23 @@
+package com.task.management.service;
+
+import com.task.management.service.payload.response.MessageResponse;
+import com.task.management.service.security.services.PasswordHashingRejectedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+	@Test
+	void saturatedHashingIsServiceUnavailableWithRetryAfter() {
+		ResponseEntity<MessageResponse> response = new GlobalExceptionHandler()
+				.handlePasswordHashingRejected(new PasswordHashingRejectedException(3));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+	}
+
+}
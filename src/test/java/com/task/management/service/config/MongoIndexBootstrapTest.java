@@ -0,0 +1,98 @@
+package com.task.management.service.config;
+
+import com.task.management.service.models.UserTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MongoIndexBootstrapTest {
+
+	private final MongoMappingContext mappingContext = new MongoMappingContext();
+
+	private MongoTemplate mongoTemplate;
+
+	private IndexOperations indexOps;
+
+	private MongoIndexBootstrap bootstrap;
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		indexOps = mock(IndexOperations.class);
+		when(mongoTemplate.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+		when(mongoTemplate.getCollectionName(any())).thenAnswer(invocation -> invocation.<Class<?>>getArgument(0).getSimpleName());
+		when(mongoTemplate.indexOps(any(Class.class))).thenReturn(indexOps);
+		when(indexOps.getIndexInfo()).thenReturn(Collections.emptyList());
+
+		bootstrap = new MongoIndexBootstrap();
+		ReflectionTestUtils.setField(bootstrap, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(bootstrap, "createIndexes", true);
+		ReflectionTestUtils.setField(bootstrap, "failOnMissing", true);
+	}
+
+	@Test
+	void createsDeclaredIndexesThatAreMissing() {
+		bootstrap.ensureIndexes();
+
+		verify(indexOps, atLeastOnce()).ensureIndex(any(IndexDefinition.class));
+	}
+
+	@Test
+	void leavesExistingIndexesAlone() {
+		List<IndexInfo> existing = new ArrayList<>();
+		for (IndexDefinition index : new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(UserTask.class)) {
+			existing.add(new IndexInfo(List.of(), index.getIndexOptions().getString("name"), false, false, null));
+		}
+		IndexOperations taskIndexOps = mock(IndexOperations.class);
+		when(mongoTemplate.indexOps(eq(UserTask.class))).thenReturn(taskIndexOps);
+		when(taskIndexOps.getIndexInfo()).thenReturn(existing);
+
+		bootstrap.ensureIndexes();
+
+		assertThat(existing).isNotEmpty();
+		verify(taskIndexOps, never()).ensureIndex(any(IndexDefinition.class));
+	}
+
+	@Test
+	void failsOnMissingIndexesWhenNotAllowedToCreateThem() {
+		ReflectionTestUtils.setField(bootstrap, "createIndexes", false);
+
+		assertThatThrownBy(bootstrap::ensureIndexes)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("UserTask.");
+		verify(indexOps, never()).ensureIndex(any(IndexDefinition.class));
+	}
+
+	@Test
+	void indexThatCannotBeBuiltCountsAsMissing() {
+		when(indexOps.ensureIndex(any(IndexDefinition.class))).thenThrow(new IllegalStateException("index build failed"));
+
+		assertThatThrownBy(bootstrap::ensureIndexes).hasMessageContaining("Missing MongoDB indexes");
+
+		ReflectionTestUtils.setField(bootstrap, "failOnMissing", false);
+		bootstrap.ensureIndexes(); // Only logged
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.task.management.service.config;
+
+import com.mongodb.DBRef;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.task.management.service.models.Role;
+import com.task.management.service.models.User;
+import com.task.management.service.models.UserRoles;
+import com.task.management.service.security.services.RoleRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoleReferenceMigrationTest {
+
+	private MongoCollection<Document> users;
+
+	private RoleRegistry roleRegistry;
+
+	private RoleReferenceMigration migration;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		users = mock(MongoCollection.class);
+		roleRegistry = mock(RoleRegistry.class);
+		when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+		when(mongoTemplate.getCollection("users")).thenReturn(users);
+		when(roleRegistry.findById(anyString())).thenReturn(Optional.empty());
+		when(roleRegistry.findById("r1")).thenReturn(Optional.of(new Role(UserRoles.ROLE_USER)));
+		when(roleRegistry.findById("r2")).thenReturn(Optional.of(new Role(UserRoles.ROLE_ADMIN)));
+
+		migration = new RoleReferenceMigration();
+		ReflectionTestUtils.setField(migration, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(migration, "roleRegistry", roleRegistry);
+	}
+
+	@Test
+	void referencesAreReplacedByEmbeddedRoles() {
+		// Both shapes a reference can be read in, and one to a role that no longer exists
+		Document user = new Document("_id", "u1").append("roles", List.of(
+				new DBRef("roles", "r1"),
+				new Document("$ref", "roles").append("$id", "r2"),
+				new DBRef("roles", "r9")));
+		found(user);
+
+		migration.migrate();
+
+		ArgumentCaptor<Bson> update = ArgumentCaptor.forClass(Bson.class);
+		verify(users).updateOne(any(Bson.class), update.capture());
+		assertThat(toBson(update.getValue())).isEqualTo(BsonDocument.parse("{\"$set\": {\"roles\": ["
+				+ "{\"_id\": \"r1\", \"name\": \"ROLE_USER\"}, {\"_id\": \"r2\", \"name\": \"ROLE_ADMIN\"}]}}"));
+	}
+
+	@Test
+	void migratedUsersAreLeftAlone() {
+		found();
+
+		migration.migrate();
+
+		verify(users, never()).updateOne(any(Bson.class), any(Bson.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void found(Document... documents) {
+		FindIterable<Document> found = mock(FindIterable.class);
+		MongoCursor<Document> cursor = mock(MongoCursor.class);
+		when(users.find(any(Bson.class))).thenReturn(found);
+		when(found.projection(any(Bson.class))).thenReturn(found);
+		when(found.iterator()).thenReturn(cursor);
+		Boolean[] more = new Boolean[documents.length + 1];
+		for (int i = 0; i < more.length; i++) {
+			more[i] = i < documents.length;
+		}
+		when(cursor.hasNext()).thenReturn(more[0], Arrays.copyOfRange(more, 1, more.length));
+		if (documents.length > 0) {
+			when(cursor.next()).thenReturn(documents[0], Arrays.copyOfRange(documents, 1, documents.length));
+		}
+	}
+
+	private static BsonDocument toBson(Bson bson) {
+		return bson.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+	}
+
+}
@@ -0,0 +1,262 @@
+package com.task.management.service.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.management.service.dto.TaskSummaryDTO;
+import com.task.management.service.models.UserTask;
+import com.task.management.service.service.UserTaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TaskControllerTest {
+
+	private static final Principal ALICE = new UsernamePasswordAuthenticationToken("alice", null);
+
+	private UserTaskService taskService;
+
+	private MockMvc mvc;
+
+	@BeforeEach
+	void setUp() {
+		taskService = mock(UserTaskService.class);
+		TaskController controller = new TaskController();
+		ReflectionTestUtils.setField(controller, "taskService", taskService);
+		ReflectionTestUtils.setField(controller, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(controller, "maxPageSize", 100);
+		ReflectionTestUtils.setField(controller, "maxBulkItems", 2);
+		mvc = MockMvcBuilders.standaloneSetup(controller).build();
+		when(taskService.getTaskCollectionVersion("alice")).thenReturn("stamp1");
+	}
+
+	@Test
+	void listIsNotModifiedForCurrentStamp() throws Exception {
+		mvc.perform(get("/api/task/get-all-tasks").principal(ALICE).header(HttpHeaders.IF_NONE_MATCH, "\"stamp1\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"stamp1\""));
+
+		verify(taskService, never()).getTasksByUserId(anyString(), any());
+	}
+
+	@Test
+	void listMatchesWeakAndListedTags() throws Exception {
+		mvc.perform(get("/api/task/get-all-tasks").principal(ALICE).header(HttpHeaders.IF_NONE_MATCH, "\"old\", W/\"stamp1\""))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void listIsSentWithStampForStaleTag() throws Exception {
+		when(taskService.getTasksByUserId(eq("alice"), any())).thenReturn(new PageImpl<>(List.of()));
+
+		mvc.perform(get("/api/task/get-all-tasks").principal(ALICE).header(HttpHeaders.IF_NONE_MATCH, "\"old\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"stamp1\""))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+	}
+
+	@Test
+	void taskIsNotModifiedForCurrentVersion() throws Exception {
+		when(taskService.getTaskVersion("t1")).thenReturn(Optional.of(stored("alice", 4L)));
+
+		mvc.perform(get("/api/task/getById/t1").principal(ALICE).header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+		verify(taskService, never()).getTaskById(anyString());
+	}
+
+	@Test
+	void otherUsersTaskIsNeverNotModified() throws Exception {
+		when(taskService.getTaskVersion("t1")).thenReturn(Optional.of(stored("bob", 4L)));
+		when(taskService.getTaskById("t1")).thenReturn(Optional.of(stored("bob", 4L)));
+
+		mvc.perform(get("/api/task/getById/t1").principal(ALICE).header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void seekAndSearchSizesAreClamped() throws Exception {
+		when(taskService.getTasksByUserIdAfter("alice", null, "dueDate", null, 100)).thenReturn(new SliceImpl<>(List.of()));
+		when(taskService.searchTasks("alice", "milk", null, 100)).thenReturn(new SliceImpl<>(List.of()));
+
+		mvc.perform(get("/api/task/get-all-tasks/seek").principal(ALICE).param("size", "100000"))
+				.andExpect(status().isOk());
+		mvc.perform(get("/api/task/search").principal(ALICE).param("q", "milk").param("size", "100000"))
+				.andExpect(status().isOk());
+
+		verify(taskService).getTasksByUserIdAfter("alice", null, "dueDate", null, 100);
+		verify(taskService).searchTasks("alice", "milk", null, 100);
+	}
+
+	@Test
+	void summaryViewListsSummaries() throws Exception {
+		when(taskService.getTaskSummariesByUserId(eq("alice"), eq("pending"), any()))
+				.thenReturn(new PageImpl<>(List.of(new TaskSummaryDTO("t1", "Milk", "pending", null))));
+
+		mvc.perform(get("/api/task/get-all-tasks").principal(ALICE).param("view", "summary").param("status", "pending"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].title").value("Milk"))
+				.andExpect(jsonPath("$.content[0].description").doesNotExist());
+
+		verify(taskService, never()).getTasksByUserIdAndStatus(anyString(), anyString(), any());
+	}
+
+	@Test
+	void unknownViewIsRejected() throws Exception {
+		mvc.perform(get("/api/task/get-all-tasks").principal(ALICE).param("view", "compact"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void nonPositiveSizeIsRejected() throws Exception {
+		mvc.perform(get("/api/task/get-all-tasks").principal(ALICE).param("size", "0"))
+				.andExpect(status().isBadRequest());
+		mvc.perform(get("/api/task/get-all-tasks/seek").principal(ALICE).param("size", "0"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void ndjsonBulkCreateReadsEveryLine() throws Exception {
+		mvc.perform(post("/api/task/bulk").principal(ALICE).contentType(MediaType.APPLICATION_NDJSON)
+						.content("{\"title\":\"a\"}\n{\"title\":\"b\"}\n"))
+				.andExpect(status().isOk());
+
+		verify(taskService).createTasks(eq("alice"), argThat(tasks -> tasks.size() == 2));
+	}
+
+	@Test
+	void ndjsonBulkCreateRejectsTooManyLines() throws Exception {
+		mvc.perform(post("/api/task/bulk").principal(ALICE).contentType(MediaType.APPLICATION_NDJSON)
+						.content("{\"title\":\"a\"}\n{\"title\":\"b\"}\n{\"title\":\"c\"}\n"))
+				.andExpect(status().isPayloadTooLarge());
+
+		verify(taskService, never()).createTasks(anyString(), any());
+	}
+
+	@Test
+	void ndjsonBulkUpdateRejectsMalformedLine() throws Exception {
+		mvc.perform(put("/api/task/bulk").principal(ALICE).contentType(MediaType.APPLICATION_NDJSON)
+						.content("{\"id\":\"t1\"}\nnot json\n"))
+				.andExpect(status().isBadRequest());
+
+		verify(taskService, never()).updateTasks(anyString(), any());
+	}
+
+	@Test
+	void jsonBulkCreateReadsEveryElement() throws Exception {
+		mvc.perform(post("/api/task/bulk").principal(ALICE).contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"title\":\"a\"},{\"title\":\"b\"}]"))
+				.andExpect(status().isOk());
+
+		verify(taskService).createTasks(eq("alice"), argThat(tasks -> tasks.size() == 2));
+	}
+
+	@Test
+	void jsonBulkUpdateRejectsTooManyElements() throws Exception {
+		// The third element is never read: the closing bracket is missing, yet the answer is 413, not 400
+		mvc.perform(put("/api/task/bulk").principal(ALICE).contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"id\":\"t1\"},{\"id\":\"t2\"},{\"id\":\"t3\"}"))
+				.andExpect(status().isPayloadTooLarge());
+
+		verify(taskService, never()).updateTasks(anyString(), any());
+	}
+
+	@Test
+	void jsonBulkDeleteRejectsAnythingButAnArray() throws Exception {
+		mvc.perform(delete("/api/task/bulk").principal(ALICE).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\":[\"t1\"]}"))
+				.andExpect(status().isBadRequest());
+		mvc.perform(delete("/api/task/bulk").principal(ALICE).contentType(MediaType.APPLICATION_JSON)
+						.content("[\"t1\""))
+				.andExpect(status().isBadRequest());
+
+		verify(taskService, never()).deleteTasks(anyString(), any());
+	}
+
+	@Test
+	void ndjsonExportTerminatesEveryLineAndClosesTheCursor() throws Exception {
+		AtomicBoolean closed = new AtomicBoolean();
+		when(taskService.streamTasksByUserId("alice", null))
+				.thenReturn(Stream.of(stored("alice", 1L), stored("alice", 2L)).onClose(() -> closed.set(true)));
+
+		String body = mvc.perform(get("/api/task/export").principal(ALICE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(body).endsWith("}\n");
+		assertThat(body.split("\n")).hasSize(2).allSatisfy(line -> assertThat(line).startsWith("{").endsWith("}"));
+		assertThat(closed).isTrue();
+	}
+
+	@Test
+	void emptyNdjsonExportIsEmpty() throws Exception {
+		when(taskService.streamTasksByUserId("alice", "DONE")).thenReturn(Stream.empty());
+
+		mvc.perform(get("/api/task/export").principal(ALICE).param("status", "DONE"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(""));
+	}
+
+	@Test
+	void jsonExportIsOneArray() throws Exception {
+		AtomicBoolean closed = new AtomicBoolean();
+		when(taskService.streamTasksByUserId("alice", null))
+				.thenReturn(Stream.of(stored("alice", 1L), stored("alice", 2L)).onClose(() -> closed.set(true)));
+
+		mvc.perform(get("/api/task/export").principal(ALICE).param("format", "json"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[1].version").value(2));
+
+		assertThat(closed).isTrue();
+	}
+
+	@Test
+	void exportRejectsUnknownFormat() throws Exception {
+		mvc.perform(get("/api/task/export").principal(ALICE).param("format", "xml"))
+				.andExpect(status().isBadRequest());
+
+		verify(taskService, never()).streamTasksByUserId(anyString(), any());
+	}
+
+	private static UserTask stored(String userId, Long version) {
+		UserTask task = new UserTask();
+		task.setId("t1");
+		task.setUserId(userId);
+		task.setVersion(version);
+		return task;
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.task.management.service.controllers;
+
+import com.task.management.service.models.UserTask;
+import com.task.management.service.service.ReactiveUserTaskService;
+import com.task.management.service.service.TaskWriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskHandlerTest {
+
+	private static final Principal ALICE = new UsernamePasswordAuthenticationToken("alice", null);
+
+	private ReactiveUserTaskService taskService;
+
+	private WebTestClient client;
+
+	@BeforeEach
+	void setUp() {
+		taskService = mock(ReactiveUserTaskService.class);
+		TaskHandler handler = new TaskHandler();
+		ReflectionTestUtils.setField(handler, "taskService", taskService);
+		ReflectionTestUtils.setField(handler, "maxPageSize", 100);
+		client = WebTestClient.bindToRouterFunction(new TaskRouter().taskRoutes(handler))
+				.webFilter((exchange, chain) -> chain.filter(exchange.mutate().principal(Mono.just(ALICE)).build()))
+				.build();
+	}
+
+	@Test
+	void listPageSizeIsCapped() {
+		when(taskService.getTasksByUserId(eq("alice"), any(Pageable.class))).thenReturn(Mono.just(new PageImpl<>(List.of())));
+
+		client.get().uri("/api/task/get-all-tasks?size=1000").exchange().expectStatus().isOk();
+
+		verify(taskService).getTasksByUserId(eq("alice"), argThat((Pageable pageable) -> pageable.getPageSize() == 100));
+	}
+
+	@Test
+	void listRejectsInvalidPaging() {
+		client.get().uri("/api/task/get-all-tasks?page=-1").exchange().expectStatus().isBadRequest();
+		client.get().uri("/api/task/get-all-tasks?size=ten").exchange().expectStatus().isBadRequest();
+	}
+
+	@Test
+	void taskOfAnotherUserIsNotFound() {
+		when(taskService.getTaskById("t1")).thenReturn(Mono.just(task("t1", "bob")));
+
+		client.get().uri("/api/task/getById/t1").exchange().expectStatus().isNotFound();
+	}
+
+	@Test
+	void tasksOfAnotherUserAreForbidden() {
+		client.get().uri("/api/task/getByUserId/bob").exchange().expectStatus().isForbidden();
+
+		verify(taskService, never()).getTasksByUserId(anyString());
+	}
+
+	@Test
+	void writeOutcomesMapToStatuses() {
+		when(taskService.updateTask(eq("t1"), eq("alice"), any(UserTask.class)))
+				.thenReturn(Mono.just(TaskWriteResult.of(TaskWriteResult.Outcome.CONFLICT)));
+		when(taskService.deleteTask("t1", "alice")).thenReturn(Mono.just(TaskWriteResult.ok(null)));
+
+		client.put().uri("/api/task/update-task/t1").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Map.of("title", "Renamed", "version", 1))
+				.exchange().expectStatus().isEqualTo(409);
+		client.delete().uri("/api/task/delete-task/t1").exchange().expectStatus().isNoContent();
+	}
+
+	@Test
+	void statusUpdateNeedsAStatusAndATask() {
+		when(taskService.updateTaskStatus("t1", "alice", "completed")).thenReturn(Mono.just(false));
+
+		client.put().uri("/api/task/update/t1").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Map.of("other", "x"))
+				.exchange().expectStatus().isBadRequest();
+		client.put().uri("/api/task/update/t1").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Map.of("status", "completed"))
+				.exchange().expectStatus().isNotFound();
+	}
+
+	private static UserTask task(String id, String userId) {
+		UserTask task = new UserTask();
+		task.setId(id);
+		task.setUserId(userId);
+		return task;
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.task.management.service.dto;
+
+import com.task.management.service.models.UserTask;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskCursorTest {
+
+	@Test
+	void roundTripsDueDateCursor() {
+		UserTask task = new UserTask();
+		task.setId("64f0c0ffee0000000000abcd");
+		task.setDueDate(LocalDate.of(2024, 5, 1));
+
+		TaskCursor decoded = TaskCursor.decode(TaskCursor.after("dueDate", task).encode());
+
+		assertThat(decoded.getSortKey()).isEqualTo("dueDate");
+		assertThat(decoded.getValue()).isEqualTo("2024-05-01");
+		assertThat(decoded.getId()).isEqualTo("64f0c0ffee0000000000abcd");
+	}
+
+	@Test
+	void keepsNullAndEmptyValuesApart() {
+		assertThat(TaskCursor.decode(new TaskCursor("dueDate", null, "a").encode()).getValue()).isNull();
+		assertThat(TaskCursor.decode(new TaskCursor("dueDate", "", "a").encode()).getValue()).isEmpty();
+	}
+
+	@Test
+	void encodesUrlSafe() {
+		String token = new TaskCursor("score", "1.5", "a?b/c").encode();
+
+		assertThat(token).doesNotContain("+", "/", "=");
+	}
+
+	@Test
+	void rejectsTokenThatIsNotBase64() {
+		assertThatThrownBy(() -> TaskCursor.decode("not a cursor!")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsWrongNumberOfParts() {
+		assertThatThrownBy(() -> TaskCursor.decode(raw("dueDate\u0000=2024-05-01")))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> TaskCursor.decode(raw("dueDate\u0000=x\u0000a\u0000b")))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsMissingId() {
+		assertThatThrownBy(() -> TaskCursor.decode(raw("dueDate\u0000=2024-05-01\u0000")))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsValueWithoutMarker() {
+		assertThatThrownBy(() -> TaskCursor.decode(raw("dueDate\u00002024-05-01\u0000a")))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static String raw(String cursor) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
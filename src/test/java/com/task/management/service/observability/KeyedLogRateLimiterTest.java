@@ -0,0 +1,47 @@
+package com.task.management.service.observability;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyedLogRateLimiterTest {
+
+	private final KeyedLogRateLimiter limiter = new KeyedLogRateLimiter(Duration.ofMinutes(1));
+
+	@Test
+	void oneLinePerKeyAndInterval() {
+		assertThat(limiter.acquire("expired")).isZero();
+		assertThat(limiter.acquire("expired")).isEqualTo(-1);
+
+		// A flood of expired tokens does not hold back the first bad signature
+		assertThat(limiter.acquire("signature")).isZero();
+		assertThat(limiter.acquire("signature")).isEqualTo(-1);
+	}
+
+	@Test
+	void nextLineReportsWhatWasSuppressed() {
+		limiter.acquire("expired");
+		limiter.acquire("expired");
+		limiter.acquire("expired");
+		limiter.acquire("signature");
+
+		elapse("expired", Duration.ofMinutes(1));
+
+		assertThat(limiter.acquire("expired")).isEqualTo(2);
+		assertThat(limiter.acquire("expired")).isEqualTo(-1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void elapse(String key, Duration duration) {
+		LogRateLimiter keyed = ((Map<String, LogRateLimiter>) ReflectionTestUtils.getField(limiter, "limiters")).get(key);
+		AtomicLong nextAllowed = (AtomicLong) ReflectionTestUtils.getField(keyed, "nextAllowed");
+		nextAllowed.addAndGet(-TimeUnit.NANOSECONDS.convert(duration));
+	}
+
+}
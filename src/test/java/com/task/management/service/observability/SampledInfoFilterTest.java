@@ -0,0 +1,83 @@
+package com.task.management.service.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SampledInfoFilterTest {
+
+	private final LoggerContext context = new LoggerContext();
+
+	private final Logger logger = context.getLogger("com.task.management.service.service.impl.UserTaskServiceImpl");
+
+	private SampledInfoFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		filter = new SampledInfoFilter();
+		filter.setBurstPerSecond(3);
+		filter.setSampleRate(5);
+	}
+
+	@Test
+	void infoIsSampledAfterTheBurst() {
+		for (int i = 1; i <= 3; i++) {
+			assertThat(info(logger)).isEqualTo(FilterReply.NEUTRAL);
+		}
+
+		// Events 4 to 9 are dropped, the 10th, a multiple of the rate, gets through
+		for (int i = 4; i <= 9; i++) {
+			assertThat(info(logger)).isEqualTo(FilterReply.DENY);
+		}
+		assertThat(info(logger)).isEqualTo(FilterReply.NEUTRAL);
+	}
+
+	@Test
+	void warnErrorAndOtherLoggersAreNeverSampled() {
+		Logger driver = context.getLogger("org.mongodb.driver.protocol.command");
+		for (int i = 0; i < 10; i++) {
+			info(logger);
+		}
+
+		assertThat(filter.decide(null, logger, Level.WARN, "Slow", null, null)).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(filter.decide(null, logger, Level.ERROR, "Failed", null, null)).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(info(driver)).isEqualTo(FilterReply.NEUTRAL);
+	}
+
+	@Test
+	void levelChecksAreNotCounted() {
+		for (int i = 0; i < 10; i++) {
+			// What isInfoEnabled() asks: no format yet
+			assertThat(filter.decide(null, logger, Level.INFO, null, null, null)).isEqualTo(FilterReply.NEUTRAL);
+		}
+
+		assertThat(info(logger)).isEqualTo(FilterReply.NEUTRAL);
+	}
+
+	@Test
+	void burstStartsOverEverySecond() {
+		for (int i = 0; i < 5; i++) {
+			info(logger);
+		}
+		assertThat(info(logger)).isEqualTo(FilterReply.DENY);
+
+		AtomicLong windowStart = (AtomicLong) ReflectionTestUtils.getField(filter, "windowStart");
+		windowStart.addAndGet(-TimeUnit.SECONDS.toNanos(1));
+
+		assertThat(info(logger)).isEqualTo(FilterReply.NEUTRAL);
+	}
+
+	private FilterReply info(Logger logger) {
+		return filter.decide(null, logger, Level.INFO, "Fetching tasks for user: {}", new Object[]{"alice"}, null);
+	}
+
+}
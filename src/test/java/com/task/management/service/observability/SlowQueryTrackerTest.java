@@ -0,0 +1,98 @@
+package com.task.management.service.observability;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryTrackerTest {
+
+	private static final ConnectionDescription CONNECTION = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+	private SlowQueryTracker tracker;
+
+	@BeforeEach
+	void setUp() {
+		tracker = new SlowQueryTracker();
+		ReflectionTestUtils.setField(tracker, "thresholdMs", 100L);
+		ReflectionTestUtils.setField(tracker, "topSize", 2);
+	}
+
+	@Test
+	void slowCommandIsKeptWithItsShape() {
+		BsonDocument command = new BsonDocument("find", new BsonString("tasks"))
+				.append("filter", new BsonDocument("userId", new BsonString("u1")).append("status", new BsonString("OPEN")))
+				.append("sort", new BsonDocument("dueDate", new BsonInt32(1)));
+
+		start(1, "find", command);
+		// The driver may reuse the document's buffer once the started callback returns
+		command.clear();
+		succeed(1, "find", 150);
+
+		assertThat(tracker.slowest()).singleElement().satisfies(query -> {
+			assertThat(query.getCollection()).isEqualTo("tasks");
+			assertThat(query.getShape()).isEqualTo("filter{userId, status} sort{dueDate}");
+			assertThat(query.getElapsedMillis()).isEqualTo(150);
+			assertThat(query.isFailed()).isFalse();
+		});
+	}
+
+	@Test
+	void pipelineShapeListsTheStages() {
+		BsonArray pipeline = new BsonArray();
+		pipeline.add(new BsonDocument("$match", new BsonDocument("userId", new BsonString("u1"))));
+		pipeline.add(new BsonDocument("$group", new BsonDocument("_id", new BsonString("$status"))));
+		start(1, "aggregate", new BsonDocument("aggregate", new BsonString("tasks")).append("pipeline", pipeline));
+		tracker.commandFailed(new CommandFailedEvent(1, CONNECTION, "aggregate", TimeUnit.MILLISECONDS.toNanos(200),
+				new RuntimeException("interrupted")));
+
+		assertThat(tracker.slowest()).singleElement().satisfies(query -> {
+			assertThat(query.getShape()).isEqualTo("pipeline[$match, $group]");
+			assertThat(query.isFailed()).isTrue();
+		});
+	}
+
+	@Test
+	void fastCommandIsNotKept() {
+		start(1, "find", new BsonDocument("find", new BsonString("tasks")));
+		succeed(1, "find", 99);
+
+		assertThat(tracker.slowest()).isEmpty();
+	}
+
+	@Test
+	void onlyTheSlowestAreKept() {
+		for (int i = 1; i <= 3; i++) {
+			start(i, "find", new BsonDocument("find", new BsonString("tasks")));
+		}
+		succeed(1, "find", 300);
+		succeed(2, "find", 120);
+		succeed(3, "find", 200);
+
+		assertThat(tracker.slowest()).extracting(SlowQuery::getElapsedMillis).containsExactly(300L, 200L);
+	}
+
+	private void start(int requestId, String name, BsonDocument command) {
+		tracker.commandStarted(new CommandStartedEvent(requestId, CONNECTION, "tasks", name, command));
+	}
+
+	private void succeed(int requestId, String name, long elapsedMillis) {
+		tracker.commandSucceeded(new CommandSucceededEvent(requestId, CONNECTION, name, new BsonDocument(),
+				TimeUnit.MILLISECONDS.toNanos(elapsedMillis)));
+	}
+
+}
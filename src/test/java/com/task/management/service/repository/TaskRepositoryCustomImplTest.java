@@ -0,0 +1,89 @@
+package com.task.management.service.repository;
+
+import com.task.management.service.dto.TaskSearchHit;
+import com.task.management.service.models.UserTask;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskRepositoryCustomImplTest {
+
+	private MongoTemplate mongoTemplate;
+
+	private TaskRepositoryCustomImpl repository;
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		repository = new TaskRepositoryCustomImpl();
+		ReflectionTestUtils.setField(repository, "mongoTemplate", mongoTemplate);
+		when(mongoTemplate.getCollectionName(UserTask.class)).thenReturn("tasks");
+	}
+
+	@Test
+	void searchDropsReturnedHitsBeforeSorting() {
+		String lastId = new ObjectId().toHexString();
+		hits(List.of());
+
+		repository.searchByUserId("alice", "report", 1.5, lastId, 10);
+
+		List<Document> pipeline = pipeline();
+		assertThat(pipeline).extracting(stage -> stage.keySet().iterator().next())
+				.containsExactly("$match", "$project", "$match", "$sort", "$limit");
+		assertThat(pipeline.get(2).toJson()).contains("\"$lt\": 1.5").contains(lastId);
+		assertThat(pipeline.get(4).get("$limit")).isEqualTo(11);
+	}
+
+	@Test
+	void firstSearchSliceHasNoCursorMatch() {
+		hits(List.of());
+
+		repository.searchByUserId("alice", "report", null, null, 10);
+
+		assertThat(pipeline()).extracting(stage -> stage.keySet().iterator().next())
+				.containsExactly("$match", "$project", "$sort", "$limit");
+	}
+
+	@Test
+	void extraHitOnlySignalsAnotherSlice() {
+		hits(List.of(hit("t1", 3.0), hit("t2", 2.0), hit("t3", 1.0)));
+
+		Slice<TaskSearchHit> slice = repository.searchByUserId("alice", "report", null, null, 2);
+
+		assertThat(slice.getContent()).extracting(TaskSearchHit::getId).containsExactly("t1", "t2");
+		assertThat(slice.hasNext()).isTrue();
+	}
+
+	private void hits(List<TaskSearchHit> hits) {
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq("tasks"), eq(TaskSearchHit.class)))
+				.thenReturn(new AggregationResults<>(hits, new Document()));
+	}
+
+	private List<Document> pipeline() {
+		ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+		verify(mongoTemplate).aggregate(aggregation.capture(), eq("tasks"), eq(TaskSearchHit.class));
+		return aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).stream().collect(Collectors.toList());
+	}
+
+	private static TaskSearchHit hit(String id, double score) {
+		return new TaskSearchHit(id, "Report " + id, "pending", null, score);
+	}
+
+}
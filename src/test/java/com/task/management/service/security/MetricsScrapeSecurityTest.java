@@ -0,0 +1,121 @@
+package com.task.management.service.security;
+
+import com.task.management.service.security.jwt.AuthEntryPointJwt;
+import com.task.management.service.security.jwt.JwtPrincipalCache;
+import com.task.management.service.security.jwt.JwtRevocationList;
+import com.task.management.service.security.jwt.JwtUtils;
+import com.task.management.service.security.services.UserDetailsImpl;
+import com.task.management.service.security.services.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig(MetricsScrapeSecurityTest.Config.class)
+@TestPropertySource(properties = {"metricsScrapePassword=scrape-secret", "passwordEncoderStrength=4"})
+class MetricsScrapeSecurityTest {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@MockBean
+	private UserDetailsServiceImpl userDetailsService;
+
+	@MockBean
+	private AuthEntryPointJwt unauthorizedHandler;
+
+	@MockBean
+	private JwtUtils jwtUtils;
+
+	@MockBean
+	private JwtPrincipalCache principalCache;
+
+	@MockBean
+	private JwtRevocationList revocationList;
+
+	private MockMvc mvc;
+
+	@BeforeEach
+	void setUp() {
+		mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+		UserDetailsImpl alice = new UserDetailsImpl("1", "alice", "alice@example.com",
+				passwordEncoder.encode("alice-secret"), List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+		when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+	}
+
+	@Test
+	void scrapeUserIsLetThrough() throws Exception {
+		mvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+				.andExpect(status().isOk());
+		mvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "wrong")))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void applicationCredentialsAreNeverChecked() throws Exception {
+		// A right and a wrong application password get the same answer, so the endpoint is no password oracle
+		mvc.perform(get("/actuator/prometheus").with(httpBasic("alice", "alice-secret")))
+				.andExpect(status().isUnauthorized());
+		mvc.perform(get("/actuator/prometheus").with(httpBasic("alice", "wrong")))
+				.andExpect(status().isUnauthorized());
+
+		verify(userDetailsService, never()).loadUserByUsername(anyString());
+	}
+
+	@Configuration
+	@EnableWebMvc
+	@EnableWebSecurity
+	@Import(WebSecurityConfig.class)
+	static class Config {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		PrometheusEndpoint prometheusEndpoint() {
+			return new PrometheusEndpoint();
+		}
+	}
+
+	@RestController
+	static class PrometheusEndpoint {
+
+		@GetMapping("/actuator/prometheus")
+		String scrape() {
+			return "# metrics";
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.task.management.service.security.jwt;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtPrincipalCacheTest {
+
+	private JwtPrincipalCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new JwtPrincipalCache();
+		ReflectionTestUtils.setField(cache, "maxSize", 10);
+		ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+	}
+
+	@Test
+	void returnsCachedPrincipalForSameToken() {
+		UserDetails alice = principal("alice");
+		cache.put("header.payload.sig", alice, expiringAt(inSeconds(60)));
+
+		assertThat(cache.get("header.payload.sig").getPrincipal()).isSameAs(alice);
+	}
+
+	@Test
+	void rejectsTokenWithSameSignatureButDifferentPayload() {
+		cache.put("header.payload.sig", principal("alice"), expiringAt(inSeconds(60)));
+
+		assertThat(cache.get("header.forged.sig")).isNull();
+	}
+
+	@Test
+	void neverOutlivesTokenExpiration() throws InterruptedException {
+		cache.put("header.payload.sig", principal("alice"), expiringAt(new Date(System.currentTimeMillis() + 50)));
+
+		Thread.sleep(100);
+		assertThat(cache.get("header.payload.sig")).isNull();
+	}
+
+	@Test
+	void doesNotCacheExpiredToken() {
+		cache.put("header.payload.sig", principal("alice"), expiringAt(new Date(System.currentTimeMillis() - 1)));
+
+		assertThat(cache.get("header.payload.sig")).isNull();
+	}
+
+	@Test
+	void ignoresTokenWithoutSignature() {
+		cache.put("header.payload.", principal("alice"), expiringAt(inSeconds(60)));
+
+		assertThat(cache.get("header.payload.")).isNull();
+	}
+
+	@Test
+	void evictsWhenFull() {
+		for (int i = 0; i < 10; i++) {
+			cache.put("header.payload.sig" + i, principal("user" + i), expiringAt(inSeconds(60)));
+		}
+		cache.put("header.payload.new", principal("newcomer"), expiringAt(inSeconds(60)));
+
+		int remaining = 0;
+		for (int i = 0; i < 10; i++) {
+			if (cache.get("header.payload.sig" + i) != null) {
+				remaining++;
+			}
+		}
+		assertThat(cache.get("header.payload.new")).isNotNull();
+		assertThat(remaining).isLessThan(10);
+	}
+
+	@Test
+	void invalidateUserDropsOnlyThatUser() {
+		cache.put("header.payload.a", principal("alice"), expiringAt(inSeconds(60)));
+		cache.put("header.payload.b", principal("bob"), expiringAt(inSeconds(60)));
+
+		cache.invalidateUser("alice");
+
+		assertThat(cache.get("header.payload.a")).isNull();
+		assertThat(cache.get("header.payload.b")).isNotNull();
+	}
+
+	private static UserDetails principal(String username) {
+		return User.withUsername(username).password("secret").roles("USER").build();
+	}
+
+	private static JwtClaims expiringAt(Date expiration) {
+		return new JwtClaims("alice", "id-alice", List.of("ROLE_USER"), new Date(), expiration);
+	}
+
+	private static Date inSeconds(int seconds) {
+		return new Date(System.currentTimeMillis() + seconds * 1000L);
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.task.management.service.security.jwt;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtRevocationListTest {
+
+	private JwtRevocationList revocationList;
+
+	@BeforeEach
+	void setUp() {
+		revocationList = new JwtRevocationList();
+		ReflectionTestUtils.setField(revocationList, "jwtExpirationMs", 60_000L);
+		ReflectionTestUtils.setField(revocationList, "principalCache", new JwtPrincipalCache());
+	}
+
+	@Test
+	void rejectsTokenIssuedInTheRevocationSecond() {
+		// jjwt truncates the issue date to whole seconds, exactly like this
+		Date issuedAt = new Date(System.currentTimeMillis() / 1000 * 1000);
+
+		revocationList.revokeUser("alice");
+
+		assertThat(revocationList.isRevoked(claims("alice", issuedAt))).isTrue();
+	}
+
+	@Test
+	void acceptsTokenIssuedAfterTheRevocationSecond() {
+		revocationList.revokeUser("alice");
+
+		assertThat(revocationList.isRevoked(claims("alice", new Date(System.currentTimeMillis() + 2000)))).isFalse();
+	}
+
+	@Test
+	void comparesPreciseIssueDatesToTheMillisecond() {
+		Date before = new Date(System.currentTimeMillis() - 1);
+		revocationList.revokeUser("alice");
+		Date after = new Date(System.currentTimeMillis() + 1);
+
+		assertThat(revocationList.isRevoked(claims("alice", before))).isTrue();
+		assertThat(revocationList.isRevoked(claims("alice", after))).isFalse();
+	}
+
+	@Test
+	void leavesOtherUsersAlone() {
+		revocationList.revokeUser("alice");
+
+		assertThat(revocationList.isRevoked(claims("bob", new Date(System.currentTimeMillis() - 5000)))).isFalse();
+	}
+
+	private static JwtClaims claims(String subject, Date issuedAt) {
+		return new JwtClaims(subject, "id-" + subject, List.of("ROLE_USER"), issuedAt, new Date(issuedAt.getTime() + 60_000));
+	}
+
+}
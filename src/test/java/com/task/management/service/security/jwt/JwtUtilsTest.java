@@ -0,0 +1,96 @@
+package com.task.management.service.security.jwt;
+
+import com.task.management.service.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilsTest {
+
+	private static final String SECRET = "4o2me8z/10ZHE916ecj+KmSt+EsV9H4930RqpX6qs7g=";
+
+	private JwtUtils jwtUtils;
+
+	@BeforeEach
+	void setUp() {
+		jwtUtils = new JwtUtils();
+		ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+		ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60_000);
+		jwtUtils.init();
+	}
+
+	@Test
+	void verifiedTokenCarriesItsClaims() {
+		long before = System.currentTimeMillis();
+		String token = jwtUtils.generateJwtToken(authentication("alice", "ROLE_USER", "ROLE_ADMIN"));
+
+		JwtClaims claims = jwtUtils.verifyJwtToken(token);
+
+		assertThat(claims.getSubject()).isEqualTo("alice");
+		assertThat(claims.getUserId()).isEqualTo("id-alice");
+		assertThat(claims.getRoles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+		// Read from iat_ms, so not truncated to the second
+		assertThat(claims.getIssuedAt().getTime()).isBetween(before, System.currentTimeMillis());
+		assertThat(claims.getExpiration()).isNotNull();
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		String token = jwtUtils.generateJwtToken(authentication("alice", "ROLE_USER"));
+		String[] parts = token.split("\\.");
+		String forged = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+		assertThat(jwtUtils.verifyJwtToken(forged)).isNull();
+		assertThat(jwtUtils.verifyJwtToken("not-a-token")).isNull();
+		assertThat(jwtUtils.verifyJwtToken("")).isNull();
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		String token = Jwts.builder().setSubject("alice")
+				.setIssuedAt(new Date(System.currentTimeMillis() - 120_000))
+				.setExpiration(new Date(System.currentTimeMillis() - 60_000))
+				.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+				.compact();
+
+		assertThat(jwtUtils.verifyJwtToken(token)).isNull();
+	}
+
+	@Test
+	void tokenWithoutNewClaimsStillVerifies() {
+		// Issued before the id, roles and iat_ms claims existed
+		Date issuedAt = new Date(System.currentTimeMillis() / 1000 * 1000);
+		String token = Jwts.builder().setSubject("alice").setIssuedAt(issuedAt)
+				.setExpiration(new Date(issuedAt.getTime() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+				.compact();
+
+		JwtClaims claims = jwtUtils.verifyJwtToken(token);
+
+		assertThat(claims.getUserId()).isNull();
+		assertThat(claims.getRoles()).isEmpty();
+		assertThat(claims.getIssuedAt()).isEqualTo(issuedAt);
+	}
+
+	private static UsernamePasswordAuthenticationToken authentication(String username, String... roles) {
+		List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+		for (String role : roles) {
+			authorities.add(new SimpleGrantedAuthority(role));
+		}
+		UserDetailsImpl principal = new UserDetailsImpl("id-" + username, username, username + "@example.com", "hash", authorities);
+		return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.task.management.service.security.jwt;
+
+import com.task.management.service.models.Role;
+import com.task.management.service.models.User;
+import com.task.management.service.models.UserRoles;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrincipalCacheEvictionListenerTest {
+
+	private final JwtPrincipalCache principalCache = mock(JwtPrincipalCache.class);
+	private final JwtRevocationList revocationList = mock(JwtRevocationList.class);
+	private final MongoOperations mongoOperations = mock(MongoOperations.class);
+
+	private PrincipalCacheEvictionListener listener;
+
+	@BeforeEach
+	void setUp() {
+		listener = new PrincipalCacheEvictionListener();
+		ReflectionTestUtils.setField(listener, "principalCache", principalCache);
+		ReflectionTestUtils.setField(listener, "revocationList", revocationList);
+		ReflectionTestUtils.setField(listener, "mongoOperations", mongoOperations);
+		ReflectionTestUtils.setField(listener, "statelessPrincipal", true);
+	}
+
+	@Test
+	void signupRevokesNothing() {
+		save(user(null, "hash", UserRoles.ROLE_USER));
+
+		verify(mongoOperations, never()).findById(any(), any());
+		verify(revocationList, never()).revokeUser(anyString());
+		verify(principalCache).invalidateUser("alice");
+	}
+
+	@Test
+	void unrelatedChangeRevokesNothing() {
+		User stored = user("1", "hash", UserRoles.ROLE_USER);
+		when(mongoOperations.findById("1", User.class)).thenReturn(stored);
+
+		User edited = user("1", "hash", UserRoles.ROLE_USER);
+		edited.setEmail("alice@example.org");
+		save(edited);
+
+		verify(revocationList, never()).revokeUser(anyString());
+		verify(principalCache).invalidateUser("alice");
+	}
+
+	@Test
+	void roleChangeRevokesTheTokens() {
+		when(mongoOperations.findById("1", User.class)).thenReturn(user("1", "hash", UserRoles.ROLE_USER));
+
+		save(user("1", "hash", UserRoles.ROLE_ADMIN));
+
+		verify(revocationList).revokeUser("alice");
+	}
+
+	@Test
+	void passwordChangeRevokesTheTokens() {
+		when(mongoOperations.findById("1", User.class)).thenReturn(user("1", "hash", UserRoles.ROLE_USER));
+
+		save(user("1", "new-hash", UserRoles.ROLE_USER));
+
+		verify(revocationList).revokeUser("alice");
+	}
+
+	private void save(User user) {
+		listener.onBeforeConvert(new BeforeConvertEvent<>(user, "users"));
+		listener.onAfterSave(new AfterSaveEvent<>(user, new Document(), "users"));
+	}
+
+	private static User user(String id, String password, UserRoles role) {
+		User user = new User("alice", "alice@example.com", password);
+		user.setId(id);
+		user.setRoles(Set.of(new Role(role)));
+		return user;
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.task.management.service.security.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+	private BoundedPasswordEncoder encoder;
+
+	@BeforeEach
+	void setUp() {
+		encoder = new BoundedPasswordEncoder(4, 1, 1, 3, new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void tearDown() {
+		encoder.shutdown();
+	}
+
+	@Test
+	void hashesAndVerifiesOnThePool() {
+		String hash = encoder.encode("secret");
+
+		assertThat(hash).startsWith("$2a$04$");
+		assertThat(encoder.matches("secret", hash)).isTrue();
+		assertThat(encoder.matches("wrong", hash)).isFalse();
+	}
+
+	@Test
+	void upgradesHashesOfAnyOtherCost() {
+		assertThat(encoder.upgradeEncoding("$2a$04$abcdefghijklmnopqrstuv")).isFalse();
+		assertThat(encoder.upgradeEncoding("$2a$10$abcdefghijklmnopqrstuv")).isTrue();
+		assertThat(encoder.upgradeEncoding("$2b$03$abcdefghijklmnopqrstuv")).isTrue(); // Lowering counts too
+
+		assertThat(encoder.upgradeEncoding(null)).isFalse();
+		assertThat(encoder.upgradeEncoding("plain")).isFalse();
+		assertThat(encoder.upgradeEncoding("$2a$xx$abcdefghijklmnopqrstuv")).isFalse();
+	}
+
+	@Test
+	void saturatedPoolRejectsRightAway() throws Exception {
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(encoder, "executor");
+		CountDownLatch release = new CountDownLatch(1);
+		executor.submit(() -> {
+			release.await(); // Holds the only thread
+			return null;
+		});
+		executor.submit(() -> null); // Fills the only queue slot
+
+		try {
+			assertThatThrownBy(() -> encoder.encode("secret"))
+					.isInstanceOfSatisfying(PasswordHashingRejectedException.class,
+							e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(3));
+		} finally {
+			release.countDown();
+		}
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.task.management.service.security.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimiterTest {
+
+	private static final String ADDRESS = "10.0.0.1";
+
+	private LoginRateLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		limiter = new LoginRateLimiter(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(limiter, "enabled", true);
+		ReflectionTestUtils.setField(limiter, "slots", 65536); // Large enough that the test keys do not share buckets
+		ReflectionTestUtils.setField(limiter, "ipBurst", 20);
+		ReflectionTestUtils.setField(limiter, "ipPerMinute", 60);
+		ReflectionTestUtils.setField(limiter, "emailBurst", 5);
+		ReflectionTestUtils.setField(limiter, "emailPerMinute", 5);
+		ReflectionTestUtils.setField(limiter, "emailCapacity", 1024);
+		limiter.init();
+	}
+
+	@Test
+	void allowsTheBurstThenRejects() {
+		for (int i = 0; i < 5; i++) {
+			assertThat(limiter.tryAcquire(ADDRESS, "alice@example.com")).isZero();
+		}
+
+		assertThat(limiter.tryAcquire(ADDRESS, "alice@example.com")).isPositive();
+		assertThat(limiter.tryAcquire(ADDRESS, "bob@example.com")).isZero();
+	}
+
+	@Test
+	void bucketRefillsAtTheConfiguredRate() {
+		long interval = TimeUnit.SECONDS.toNanos(12); // 5 per minute
+		LoginRateLimiter.Buckets buckets = new LoginRateLimiter.Buckets(16, 1, 5);
+		long now = TimeUnit.SECONDS.toNanos(100);
+
+		assertThat(buckets.take(7, buckets.arrival(7), now)).isTrue();
+		assertThat(buckets.wait(buckets.arrival(7), now + interval / 2)).isEqualTo(interval / 2);
+		assertThat(buckets.wait(buckets.arrival(7), now + interval)).isZero();
+	}
+
+	@Test
+	void emailsAreComparedCaseInsensitively() {
+		ReflectionTestUtils.setField(limiter, "emailBurst", 1);
+		limiter.init();
+
+		assertThat(limiter.tryAcquire(ADDRESS, "Alice@Example.com")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.2", "alice@example.COM")).isPositive();
+	}
+
+	@Test
+	void emailsNeverShareABucket() {
+		// Two slots for four emails: a hashed table would put at least two of them in one bucket
+		ReflectionTestUtils.setField(limiter, "emailBurst", 1);
+		ReflectionTestUtils.setField(limiter, "emailCapacity", 2);
+		limiter.init();
+
+		assertThat(limiter.tryAcquire(ADDRESS, "alice@example.com")).isZero();
+		assertThat(limiter.tryAcquire(ADDRESS, "bob@example.com")).isZero();
+		assertThat(limiter.tryAcquire(ADDRESS, "alice@example.com")).isPositive();
+		assertThat(limiter.tryAcquire(ADDRESS, "carol@example.com")).isZero();
+		assertThat(limiter.tryAcquire(ADDRESS, "dave@example.com")).isZero();
+	}
+
+	@Test
+	void leastRecentlyTriedEmailIsEvicted() {
+		ReflectionTestUtils.setField(limiter, "emailBurst", 1);
+		ReflectionTestUtils.setField(limiter, "emailCapacity", 2);
+		limiter.init();
+
+		assertThat(limiter.tryAcquire(ADDRESS, "alice@example.com")).isZero();
+		assertThat(limiter.tryAcquire(ADDRESS, "bob@example.com")).isZero();
+		assertThat(limiter.tryAcquire(ADDRESS, "alice@example.com")).isPositive(); // Alice is now the most recent
+
+		// Carol takes Bob's slot, emptied; Alice keeps hers
+		assertThat(limiter.tryAcquire(ADDRESS, "carol@example.com")).isZero();
+		assertThat(limiter.tryAcquire(ADDRESS, "alice@example.com")).isPositive();
+		assertThat(limiter.tryAcquire(ADDRESS, "bob@example.com")).isZero();
+	}
+
+	@Test
+	void retryAfterIsRoundedUpToWholeSeconds() {
+		ReflectionTestUtils.setField(limiter, "emailBurst", 1);
+		ReflectionTestUtils.setField(limiter, "emailPerMinute", 1);
+		limiter.init();
+
+		limiter.tryAcquire(ADDRESS, "alice@example.com");
+
+		// Just under a minute until the next token, reported as the full minute
+		assertThat(limiter.tryAcquire(ADDRESS, "alice@example.com")).isEqualTo(60);
+	}
+
+	@Test
+	void attemptRejectedForItsEmailDoesNotChargeTheAddress() {
+		ReflectionTestUtils.setField(limiter, "ipBurst", 2);
+		ReflectionTestUtils.setField(limiter, "emailBurst", 1);
+		limiter.init();
+
+		assertThat(limiter.tryAcquire(ADDRESS, "alice@example.com")).isZero();
+		assertThat(limiter.tryAcquire(ADDRESS, "alice@example.com")).isPositive();
+
+		// The rejected attempt left the second token of the address in place
+		assertThat(limiter.tryAcquire(ADDRESS, "bob@example.com")).isZero();
+		assertThat(limiter.tryAcquire(ADDRESS, "carol@example.com")).isPositive();
+	}
+
+	@Test
+	void disabledLimiterAllowsEverything() {
+		ReflectionTestUtils.setField(limiter, "enabled", false);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(limiter.tryAcquire(ADDRESS, "alice@example.com")).isZero();
+		}
+	}
+
+}
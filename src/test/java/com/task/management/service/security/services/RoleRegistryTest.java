@@ -0,0 +1,70 @@
+package com.task.management.service.security.services;
+
+import com.task.management.service.models.Role;
+import com.task.management.service.models.UserRoles;
+import com.task.management.service.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class RoleRegistryTest {
+
+	private RoleRepository roleRepository;
+
+	private RoleRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		roleRepository = mock(RoleRepository.class);
+		when(roleRepository.findAll()).thenReturn(List.of(role("r1", UserRoles.ROLE_USER)));
+		registry = new RoleRegistry();
+		registry.roleRepository = roleRepository;
+		registry.load();
+	}
+
+	@Test
+	void loadedRolesAreServedFromMemory() {
+		assertThat(registry.get(UserRoles.ROLE_USER).getId()).isEqualTo("r1");
+		assertThat(registry.findById("r1")).map(Role::getName).contains(UserRoles.ROLE_USER);
+		assertThat(registry.findById("r9")).isEmpty();
+
+		verify(roleRepository).findAll();
+		verifyNoMoreInteractions(roleRepository);
+	}
+
+	@Test
+	void roleCreatedAfterStartupIsLookedUpOnce() {
+		when(roleRepository.findByName(UserRoles.ROLE_ADMIN)).thenReturn(Optional.of(role("r2", UserRoles.ROLE_ADMIN)));
+
+		registry.get(UserRoles.ROLE_ADMIN);
+		registry.get(UserRoles.ROLE_ADMIN);
+
+		verify(roleRepository, times(1)).findByName(UserRoles.ROLE_ADMIN);
+		assertThat(registry.findById("r2")).isPresent();
+		assertThat(registry.get(UserRoles.ROLE_USER).getId()).isEqualTo("r1");
+	}
+
+	@Test
+	void missingRoleIsAnError() {
+		when(roleRepository.findByName(UserRoles.ROLE_MODERATOR)).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> registry.get(UserRoles.ROLE_MODERATOR)).hasMessageContaining("Role is not found");
+	}
+
+	private static Role role(String id, UserRoles name) {
+		Role role = new Role(name);
+		role.setId(id);
+		return role;
+	}
+
+}
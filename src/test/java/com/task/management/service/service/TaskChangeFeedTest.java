@@ -0,0 +1,166 @@
+package com.task.management.service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskChangeFeedTest {
+
+	private TaskChangeFeed feed;
+
+	private ExecutorService delivery;
+
+	private RecordingEmitter next; // Handed out by the next subscribe
+
+	@BeforeEach
+	void setUp() {
+		feed = new TaskChangeFeed() {
+			@Override
+			SseEmitter createEmitter() {
+				return next;
+			}
+		};
+		ReflectionTestUtils.setField(feed, "bufferSize", 16);
+		ReflectionTestUtils.setField(feed, "replaySize", 2);
+		ReflectionTestUtils.setField(feed, "emitterTimeoutMs", 60_000L);
+		ReflectionTestUtils.setField(feed, "sendTimeoutMs", 60_000L);
+		// One delivery thread, so a no-op task submitted after a publish runs after its delivery
+		delivery = Executors.newSingleThreadExecutor();
+		ReflectionTestUtils.setField(feed, "delivery", delivery);
+	}
+
+	@AfterEach
+	void tearDown() {
+		delivery.shutdownNow();
+	}
+
+	@Test
+	void reconnectReplaysEventsAfterLastEventId() throws Exception {
+		RecordingEmitter first = subscribe("alice", null);
+		feed.publish(event("t1"));
+		feed.publish(event("t2"));
+		feed.publish(event("t3"));
+		flush();
+
+		RecordingEmitter second = subscribe("alice", first.events.get(0).getId());
+		flush();
+
+		assertThat(second.events).extracting(e -> e.getTaskIds().get(0)).containsExactly("t2", "t3");
+	}
+
+	@Test
+	void reconnectPastTheReplayBufferGetsReset() throws Exception {
+		RecordingEmitter first = subscribe("alice", null);
+		feed.publish(event("t1"));
+		feed.publish(event("t2"));
+		feed.publish(event("t3"));
+		feed.publish(event("t4"));
+		flush();
+
+		// Only the last two events are kept, so t2 can no longer be replayed
+		RecordingEmitter second = subscribe("alice", first.events.get(0).getId());
+		flush();
+
+		assertThat(second.events).extracting(TaskChangeEvent::getType).containsExactly(TaskChangeEvent.RESET);
+		RecordingEmitter third = subscribe("alice", "unknown-1");
+		flush();
+		assertThat(third.events).extracting(TaskChangeEvent::getType).containsExactly(TaskChangeEvent.RESET);
+	}
+
+	@Test
+	void idleChannelIsSweptAndOldIdsResetAfterwards() throws Exception {
+		RecordingEmitter first = subscribe("alice", null);
+		feed.publish(event("t1"));
+		flush();
+		first.failing = true;
+		feed.publish(event("t2")); // The failed send disconnects the subscriber
+		flush();
+
+		ReflectionTestUtils.setField(feed, "emitterTimeoutMs", 0L);
+		Thread.sleep(5);
+		ReflectionTestUtils.invokeMethod(feed, "heartbeat");
+
+		RecordingEmitter second = subscribe("alice", first.events.get(0).getId());
+		flush();
+		assertThat(second.events).extracting(TaskChangeEvent::getType).containsExactly(TaskChangeEvent.RESET);
+	}
+
+	@Test
+	void subscriberStuckInASendIsEvicted() throws Exception {
+		RecordingEmitter stuck = subscribe("alice", null);
+		stuck.blocked = new CountDownLatch(1);
+		feed.publish(event("t1"));
+		assertThat(stuck.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+		ReflectionTestUtils.setField(feed, "sendTimeoutMs", 0L);
+		Thread.sleep(5);
+		ReflectionTestUtils.invokeMethod(feed, "heartbeat"); // Must not block on the stuck emitter
+		feed.publish(event("t2"));
+
+		stuck.blocked.countDown();
+		flush();
+		assertThat(stuck.events).extracting(e -> e.getTaskIds().get(0)).containsExactly("t1");
+		assertThat(stuck.completed).isTrue();
+	}
+
+	private RecordingEmitter subscribe(String userId, String lastEventId) {
+		next = new RecordingEmitter();
+		feed.subscribe(userId, lastEventId);
+		return next;
+	}
+
+	private void flush() throws Exception {
+		delivery.submit(() -> { }).get(5, TimeUnit.SECONDS);
+	}
+
+	private static TaskChangeEvent event(String taskId) {
+		return TaskChangeEvent.of("alice", TaskChangeEvent.UPDATED, List.of(taskId), "stamp");
+	}
+
+	private static final class RecordingEmitter extends SseEmitter {
+		private final List<TaskChangeEvent> events = new CopyOnWriteArrayList<>();
+		private final CountDownLatch sending = new CountDownLatch(1);
+		private volatile CountDownLatch blocked;
+		private volatile boolean failing;
+		private volatile boolean completed;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			sending.countDown();
+			try {
+				if (blocked != null && !blocked.await(5, TimeUnit.SECONDS)) {
+					throw new IOException("Still blocked");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			}
+			if (failing) {
+				throw new IOException("Connection reset");
+			}
+			for (DataWithMediaType part : builder.build()) {
+				if (part.getData() instanceof TaskChangeEvent) {
+					events.add((TaskChangeEvent) part.getData());
+				}
+			}
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.task.management.service.service;
+
+import com.task.management.service.models.UserTask;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskPageCacheTest {
+
+	private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+	private TaskPageCache cache;
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		cache = new TaskPageCache(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(cache, "maxUsers", 100);
+		ReflectionTestUtils.setField(cache, "maxPagesPerUser", 4);
+		ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+	}
+
+	@Test
+	void servesSecondReadFromCache() {
+		Page<UserTask> first = cache.get("alice", null, FIRST_PAGE, this::load);
+		Page<UserTask> second = cache.get("alice", null, FIRST_PAGE, this::load);
+
+		assertThat(second).isSameAs(first);
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void invalidateDropsOnlyThatUser() {
+		cache.get("alice", null, FIRST_PAGE, this::load);
+		cache.get("bob", null, FIRST_PAGE, this::load);
+
+		cache.invalidate("alice");
+		cache.get("alice", null, FIRST_PAGE, this::load);
+		cache.get("bob", null, FIRST_PAGE, this::load);
+
+		assertThat(loads).hasValue(3);
+	}
+
+	@Test
+	void dropsPageLoadedAcrossAnInvalidation() {
+		// The write lands while the page is being read, so the page may predate it
+		cache.get("alice", null, FIRST_PAGE, () -> {
+			Page<UserTask> page = load();
+			cache.invalidate("alice");
+			return page;
+		});
+		cache.get("alice", null, FIRST_PAGE, this::load);
+
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void neverServesPageLoadedBeforeConcurrentInvalidation() throws Exception {
+		ExecutorService readers = Executors.newFixedThreadPool(4);
+		try {
+			for (int round = 0; round < 200; round++) {
+				CountDownLatch loading = new CountDownLatch(1);
+				CountDownLatch written = new CountDownLatch(1);
+				Future<?> reader = readers.submit(() -> cache.get("alice", null, FIRST_PAGE, () -> {
+					loading.countDown();
+					await(written);
+					return load();
+				}));
+				loading.await();
+				cache.invalidate("alice");
+				written.countDown();
+				reader.get(5, TimeUnit.SECONDS);
+
+				int before = loads.get();
+				cache.get("alice", null, FIRST_PAGE, this::load);
+				assertThat(loads).hasValue(before + 1);
+				cache.invalidate("alice");
+			}
+		} finally {
+			readers.shutdownNow();
+		}
+	}
+
+	@Test
+	void countsInvalidationsApartFromEvictions() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		cache = new TaskPageCache(registry);
+		ReflectionTestUtils.setField(cache, "maxUsers", 1);
+		ReflectionTestUtils.setField(cache, "maxPagesPerUser", 4);
+		ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+
+		cache.get("alice", null, FIRST_PAGE, this::load);
+		cache.get("bob", null, FIRST_PAGE, this::load); // Evicts Alice
+		cache.invalidate("bob");
+		cache.invalidate("carol"); // Nothing cached, nothing dropped
+
+		assertThat(registry.get("task.page.cache.removals").tag("cause", "capacity").counter().count()).isEqualTo(1);
+		assertThat(registry.get("task.page.cache.removals").tag("cause", "invalidation").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void bypassesCacheWhenDisabled() {
+		ReflectionTestUtils.setField(cache, "maxUsers", 0);
+
+		cache.get("alice", null, FIRST_PAGE, this::load);
+		cache.get("alice", null, FIRST_PAGE, this::load);
+
+		assertThat(loads).hasValue(2);
+	}
+
+	private Page<UserTask> load() {
+		loads.incrementAndGet();
+		return new PageImpl<>(List.of(new UserTask()), FIRST_PAGE, 1);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
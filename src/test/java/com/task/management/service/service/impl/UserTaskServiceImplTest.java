@@ -0,0 +1,386 @@
+package com.task.management.service.service.impl;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.task.management.service.dto.TaskSummaryDTO;
+import com.task.management.service.models.UserTask;
+import com.task.management.service.payload.response.BulkItemResult;
+import com.task.management.service.payload.response.TaskStats;
+import com.task.management.service.repository.TaskRepository;
+import com.task.management.service.service.TaskChangeFeed;
+import com.task.management.service.service.TaskPageCache;
+import com.task.management.service.service.TaskWriteResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserTaskServiceImplTest {
+
+	@Mock
+	private TaskRepository taskRepository;
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private TaskPageCache pageCache;
+
+	@Mock
+	private TaskChangeFeed changeFeed;
+
+	@InjectMocks
+	private UserTaskServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "bulkChunkSize", 1000);
+		ReflectionTestUtils.setField(service, "outboxEnabled", false);
+		ReflectionTestUtils.setField(service, "statsCountersEnabled", true);
+		ReflectionTestUtils.setField(service, "statsZone", ZoneOffset.UTC);
+	}
+
+	@Test
+	void updateOfMissingTaskIsNotFound() {
+		TaskWriteResult result = service.updateTask("t1", "alice", task("Title"));
+
+		assertThat(result.getOutcome()).isEqualTo(TaskWriteResult.Outcome.NOT_FOUND);
+		verify(pageCache, never()).invalidate(any());
+	}
+
+	@Test
+	void updateOfOtherUsersTaskIsForbidden() {
+		when(mongoTemplate.findOne(any(Query.class), eq(UserTask.class))).thenReturn(stored("t1", "bob", 3L));
+
+		TaskWriteResult result = service.updateTask("t1", "alice", task("Title"));
+
+		assertThat(result.getOutcome()).isEqualTo(TaskWriteResult.Outcome.FORBIDDEN);
+	}
+
+	@Test
+	void updateOfStaleVersionIsConflict() {
+		when(mongoTemplate.findOne(any(Query.class), eq(UserTask.class))).thenReturn(stored("t1", "alice", 3L));
+		UserTask update = task("Title");
+		update.setVersion(2L);
+
+		TaskWriteResult result = service.updateTask("t1", "alice", update);
+
+		assertThat(result.getOutcome()).isEqualTo(TaskWriteResult.Outcome.CONFLICT);
+	}
+
+	@Test
+	void deleteOfOtherUsersTaskIsForbidden() {
+		when(mongoTemplate.findOne(any(Query.class), eq(UserTask.class))).thenReturn(stored("t1", "bob", 3L));
+
+		TaskWriteResult result = service.deleteTask("t1", "alice");
+
+		assertThat(result.getOutcome()).isEqualTo(TaskWriteResult.Outcome.FORBIDDEN);
+	}
+
+	@Test
+	void bulkCreateReportsEveryItemAtItsRequestIndex() {
+		BulkOperations bulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserTask.class)).thenReturn(bulk);
+		// The third request item is the second insert sent, since the second item never reaches the database
+		BulkOperationException failure = mock(BulkOperationException.class);
+		when(failure.getErrors()).thenReturn(List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)));
+		when(bulk.execute()).thenThrow(failure);
+
+		List<BulkItemResult> results = service.createTasks("alice",
+				Arrays.asList(task("First"), task(""), task("Third"), task("Fourth")));
+
+		assertThat(results).extracting(BulkItemResult::getIndex, BulkItemResult::getStatus).containsExactly(
+				tuple(0, "created"), tuple(1, "invalid"), tuple(2, "failed"), tuple(3, "created"));
+		assertThat(results.get(0).getId()).isNotNull();
+		assertThat(results.get(2).getId()).isNull();
+		verify(pageCache).invalidate("alice");
+	}
+
+	@Test
+	void bulkUpdateTakesFullMatchFromBulkResult() {
+		BulkOperations bulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserTask.class)).thenReturn(bulk);
+		BulkWriteResult written = mock(BulkWriteResult.class);
+		when(written.getMatchedCount()).thenReturn(2);
+		when(bulk.execute()).thenReturn(written);
+
+		List<BulkItemResult> results = service.updateTasks("alice",
+				Arrays.asList(stored("t1", null, null), stored(null, null, null), stored("t2", null, null)));
+
+		assertThat(results).extracting(BulkItemResult::getStatus).containsExactly("updated", "invalid", "updated");
+		verify(mongoTemplate, never()).find(any(Query.class), eq(UserTask.class));
+	}
+
+	@Test
+	void bulkUpdateResolvesShortfallPerItem() {
+		BulkOperations bulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserTask.class)).thenReturn(bulk);
+		BulkWriteResult written = mock(BulkWriteResult.class);
+		when(written.getMatchedCount()).thenReturn(1);
+		when(bulk.execute()).thenReturn(written);
+		when(mongoTemplate.find(any(Query.class), eq(UserTask.class))).thenReturn(List.of(stored("t2", "alice", 1L)));
+
+		List<BulkItemResult> results = service.updateTasks("alice",
+				Arrays.asList(stored("t1", null, null), stored("t2", null, null)));
+
+		assertThat(results).extracting(BulkItemResult::getStatus).containsExactly("not_found", "updated");
+	}
+
+	@Test
+	void bulkDeleteReportsWhatWasRemoved() {
+		// Alice owns only t1, and a task can only be removed once
+		Map<Object, UserTask> owned = new HashMap<>(Map.of("t1", stored("t1", "alice", 0L)));
+		when(mongoTemplate.findAndRemove(any(Query.class), eq(UserTask.class)))
+				.thenAnswer(invocation -> owned.remove(invocation.<Query>getArgument(0).getQueryObject().get("id")));
+
+		List<BulkItemResult> results = service.deleteTasks("alice", Arrays.asList("t1", "", "t2", "t1"));
+
+		assertThat(results).extracting(BulkItemResult::getStatus).containsExactly("deleted", "invalid", "not_found", "not_found");
+		verify(mongoTemplate, never()).remove(any(Query.class), eq(UserTask.class));
+		verify(pageCache).invalidate("alice");
+		assertThat(stampIncrements()).isEqualTo(new Document("counters.total", -1L)
+				.append("counters.byStatus.s_pending", -1L)
+				.append("counters.overdue", -1L)
+				.append("writesInFlight", -1));
+	}
+
+	@Test
+	void createCountsTheTaskWithTheNewStamp() {
+		UserTask task = task("Title");
+		task.setUserId("alice");
+		task.setDueDate(today().plusDays(2));
+		when(taskRepository.save(task)).thenReturn(task);
+
+		service.createTask(task);
+
+		assertThat(stampIncrements()).isEqualTo(new Document("counters.total", 1L)
+				.append("counters.byStatus.s_pending", 1L)
+				.append("counters.dueThisWeek", 1L)
+				.append("writesInFlight", -1));
+	}
+
+	@Test
+	void deleteTakesBackTheRemovedTask() {
+		UserTask removed = stored("t1", "alice", 3L);
+		removed.setDueDate(today().minusDays(1));
+		when(mongoTemplate.findAndRemove(any(Query.class), eq(UserTask.class))).thenReturn(removed);
+
+		TaskWriteResult result = service.deleteTask("t1", "alice");
+
+		assertThat(result.getOutcome()).isEqualTo(TaskWriteResult.Outcome.OK);
+		assertThat(stampIncrements()).isEqualTo(new Document("counters.total", -1L)
+				.append("counters.byStatus.s_pending", -1L)
+				.append("counters.overdue", -1L)
+				.append("writesInFlight", -1));
+	}
+
+	@Test
+	void statusChangeMovesTheTaskBetweenCounters() {
+		UserTask previous = stored("t1", "alice", 3L);
+		previous.setDueDate(today().minusDays(1));
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(UserTask.class)))
+				.thenReturn(previous);
+
+		assertThat(service.updateTaskStatus("t1", "alice", "completed")).isTrue();
+
+		// The total is unchanged, so it is not sent at all
+		assertThat(stampIncrements()).isEqualTo(new Document("counters.byStatus.s_pending", -1L)
+				.append("counters.overdue", -1L)
+				.append("counters.byStatus.s_completed", 1L)
+				.append("writesInFlight", -1));
+	}
+
+	@Test
+	void statusUpdateIsOneOwnerScopedFindAndModify() {
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(UserTask.class)))
+				.thenReturn(stored("t1", "alice", 3L));
+
+		assertThat(service.updateTaskStatus("t1", "alice", "completed")).isTrue();
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+		verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(UserTask.class));
+		assertThat(query.getValue().getQueryObject()).containsEntry("id", "t1").containsEntry("userId", "alice");
+		assertThat(update.getValue().getUpdateObject().get("$set", Document.class)).containsEntry("status", "completed");
+		assertThat(update.getValue().getUpdateObject().get("$inc", Document.class)).containsEntry("version", 1);
+		// The task before the write is what the counters need
+		assertThat(options.getValue().isReturnNew()).isFalse();
+		verify(taskRepository, never()).findById(any());
+		verify(pageCache).invalidate("alice");
+	}
+
+	@Test
+	void statusUpdateOfAnotherUsersTaskChangesNothing() {
+		assertThat(service.updateTaskStatus("t1", "mallory", "completed")).isFalse();
+
+		verify(pageCache, never()).invalidate(any());
+		verify(changeFeed, never()).publishLocal(any());
+	}
+
+	@Test
+	void bulkUpdateDropsTheCounters() {
+		BulkOperations bulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserTask.class)).thenReturn(bulk);
+		BulkWriteResult written = mock(BulkWriteResult.class);
+		when(written.getMatchedCount()).thenReturn(1);
+		when(bulk.execute()).thenReturn(written);
+
+		service.updateTasks("alice", List.of(stored("t1", null, null)));
+
+		assertThat(stampUpdate().getUpdateObject().get("$unset", Document.class)).containsKey("counters");
+	}
+
+	@Test
+	void summariesAreReadThroughTheProjection() {
+		PageRequest pageable = PageRequest.of(0, 10);
+		Page<TaskSummaryDTO> all = new PageImpl<>(List.of(new TaskSummaryDTO("t1", "Milk", "pending", null)));
+		Page<TaskSummaryDTO> pending = new PageImpl<>(List.of());
+		when(taskRepository.findSummaryByUserId("alice", pageable)).thenReturn(all);
+		when(taskRepository.findSummaryByUserIdAndStatus("alice", "pending", pageable)).thenReturn(pending);
+
+		assertThat(service.getTaskSummariesByUserId("alice", null, pageable)).isSameAs(all);
+		assertThat(service.getTaskSummariesByUserId("alice", "pending", pageable)).isSameAs(pending);
+
+		verify(taskRepository, never()).findByUserId(any(), any());
+		verify(taskRepository, never()).findByUserIdAndStatus(any(), any(), any());
+	}
+
+	@Test
+	void statsAreReadFromTodaysCounters() {
+		Document counters = TaskStatsDelta.counters(today(), 3, Map.of("pending", 2L, "a.b", 1L), 1, 0);
+		counters.get("byStatus", Document.class).append(TaskStatsDelta.statusField("gone"), 0L);
+		when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq(UserTaskServiceImpl.COLLECTION_VERSIONS)))
+				.thenReturn(new Document("_id", "alice").append("stamp", new ObjectId()).append("counters", counters));
+
+		TaskStats stats = service.getTaskStats("alice");
+
+		assertThat(stats.getTotal()).isEqualTo(3);
+		assertThat(stats.getByStatus()).containsOnly(Map.entry("pending", 2L), Map.entry("a.b", 1L));
+		verify(taskRepository, never()).aggregateStats(any(), any());
+	}
+
+	@Test
+	void tasksWithoutStatusAreCountedApartFromStatusNone() {
+		Map<String, Long> byStatus = new HashMap<>();
+		byStatus.put(null, 2L);
+		byStatus.put("none", 1L);
+		Document counters = TaskStatsDelta.counters(today(), 3, byStatus, 0, 0);
+		when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq(UserTaskServiceImpl.COLLECTION_VERSIONS)))
+				.thenReturn(new Document("_id", "alice").append("stamp", new ObjectId()).append("counters", counters));
+
+		TaskStats stats = service.getTaskStats("alice");
+
+		assertThat(counters.get("byStatus", Document.class)).containsEntry("nullStatus", 2L).containsEntry("s_none", 1L);
+		assertThat(TaskStatsDelta.statusOf(TaskStatsDelta.statusField(null))).isNull();
+		// Both are reported under "none", since JSON has no null keys
+		assertThat(stats.getByStatus()).containsOnly(Map.entry("none", 3L));
+	}
+
+	@Test
+	void statsAreRecomputedAfterMidnight() {
+		Document counters = TaskStatsDelta.counters(today().minusDays(1), 1, Map.of("pending", 1L), 0, 1);
+		when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq(UserTaskServiceImpl.COLLECTION_VERSIONS)))
+				.thenReturn(new Document("_id", "alice").append("stamp", new ObjectId()).append("counters", counters));
+		TaskStats fresh = new TaskStats(today(), 1, Map.of("pending", 1L), 1, 0);
+		when(taskRepository.aggregateStats("alice", today())).thenReturn(fresh);
+
+		assertThat(service.getTaskStats("alice")).isSameAs(fresh);
+		verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(UserTaskServiceImpl.COLLECTION_VERSIONS));
+	}
+
+	@Test
+	void missedWriteEndsItsInFlightMark() {
+		service.updateTaskStatus("t1", "alice", "completed");
+
+		ArgumentCaptor<Update> begin = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).upsert(any(Query.class), begin.capture(), eq(UserTaskServiceImpl.COLLECTION_VERSIONS));
+		assertThat(begin.getValue().getUpdateObject().get("$inc", Document.class)).containsEntry("writesInFlight", 1);
+		ArgumentCaptor<Update> end = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).updateFirst(any(Query.class), end.capture(), eq(UserTaskServiceImpl.COLLECTION_VERSIONS));
+		assertThat(end.getValue().getUpdateObject().get("$inc", Document.class)).containsEntry("writesInFlight", -1);
+	}
+
+	@Test
+	void recomputedStatsAreOnlyStoredWithoutWritesInFlight() {
+		ObjectId stamp = new ObjectId();
+		when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq(UserTaskServiceImpl.COLLECTION_VERSIONS)))
+				.thenReturn(new Document("_id", "alice").append("stamp", stamp));
+		when(taskRepository.aggregateStats("alice", today())).thenReturn(new TaskStats(today(), 0, Map.of(), 0, 0));
+
+		service.getTaskStats("alice");
+
+		ArgumentCaptor<Query> store = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).updateFirst(store.capture(), any(Update.class), eq(UserTaskServiceImpl.COLLECTION_VERSIONS));
+		Document filter = store.getValue().getQueryObject();
+		assertThat(filter).containsEntry("stamp", stamp);
+		// A write that began before the store has not reached its stamp upsert, so its $inc is still to come
+		assertThat(String.valueOf(filter.get("$and"))).contains("writesInFlight").contains("lastWriteBegunAt");
+	}
+
+	private Update stampUpdate() {
+		// With counters on, a counted write first marks itself in flight; the stamp upsert is the last one
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate, atLeastOnce()).upsert(any(Query.class), update.capture(), eq(UserTaskServiceImpl.COLLECTION_VERSIONS));
+		return update.getValue();
+	}
+
+	private Document stampIncrements() {
+		return stampUpdate().getUpdateObject().get("$inc", Document.class);
+	}
+
+	private static LocalDate today() {
+		return LocalDate.now(ZoneOffset.UTC);
+	}
+
+	private static UserTask task(String title) {
+		UserTask task = new UserTask();
+		task.setTitle(title);
+		task.setDueDate(LocalDate.of(2024, 5, 1));
+		task.setStatus("pending");
+		return task;
+	}
+
+	private static UserTask stored(String id, String userId, Long version) {
+		UserTask task = task("Stored");
+		task.setId(id);
+		task.setUserId(userId);
+		task.setVersion(version);
+		return task;
+	}
+
+}
@@ -0,0 +1,239 @@
+package com.task.management.service.service.outbox;
+
+import com.task.management.service.models.TaskOutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseActions;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class TaskOutboxDispatcherTest {
+
+	private static final String URL = "http://hooks.example/tasks";
+
+	private MongoTemplate mongoTemplate;
+
+	private MockRestServiceServer webhook;
+
+	private TaskOutboxDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		RestTemplate restTemplate = new RestTemplate();
+		webhook = MockRestServiceServer.bindTo(restTemplate).build();
+		WebhookOutboxSink sink = new WebhookOutboxSink();
+		ReflectionTestUtils.setField(sink, "url", URL);
+		ReflectionTestUtils.setField(sink, "restTemplate", restTemplate);
+
+		mongoTemplate = mock(MongoTemplate.class);
+		dispatcher = new TaskOutboxDispatcher();
+		ReflectionTestUtils.setField(dispatcher, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(dispatcher, "sinks", List.of(sink));
+		ReflectionTestUtils.setField(dispatcher, "registry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(dispatcher, "batchSize", 500);
+		ReflectionTestUtils.setField(dispatcher, "leaseMs", 30_000L);
+		ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+		ReflectionTestUtils.setField(dispatcher, "retryBackoffMs", 1000L);
+		dispatcher.registerMeters();
+	}
+
+	@Test
+	void failedEventIsRetriedWithExponentialBackoff() {
+		TaskOutboxEvent first = event("a", 0);
+		TaskOutboxEvent other = event("b", 2);
+		pending(List.of(first, other));
+		expectPost().andRespond(withServerError()); // The batch
+		expectPost().andRespond(withServerError());
+		expectPost().andRespond(withServerError());
+		ReflectionTestUtils.setField(dispatcher, "maxAttempts", 10);
+		Instant before = Instant.now();
+
+		dispatcher.dispatch();
+
+		webhook.verify();
+		List<Update> failures = failureUpdates(2);
+		assertThat(failures.get(0).getUpdateObject().get("$set", Document.class))
+				.containsEntry("attempts", 1)
+				.containsKey("nextAttemptAt");
+		assertThat(nextAttemptAt(failures.get(0))).isBetween(before.plusMillis(1000), Instant.now().plusMillis(1000));
+		assertThat(nextAttemptAt(failures.get(1))).isBetween(before.plusMillis(4000), Instant.now().plusMillis(4000));
+		verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(TaskOutboxEvent.class));
+	}
+
+	@Test
+	void eventIsDeadLetteredAfterMaxAttempts() {
+		pending(List.of(event("a", 2)));
+		expectPost().andRespond(withServerError());
+		expectPost().andRespond(withServerError());
+
+		dispatcher.dispatch();
+
+		Document set = failureUpdates(1).get(0).getUpdateObject().get("$set", Document.class);
+		assertThat(set).containsEntry("attempts", 3).containsKey("deadAt").doesNotContainKey("nextAttemptAt");
+	}
+
+	@Test
+	void laterEventsOfAFailedTaskWait() {
+		TaskOutboxEvent first = event("a", 0);
+		TaskOutboxEvent second = event("a", 0);
+		TaskOutboxEvent other = event("b", 0);
+		pending(List.of(first, second, other));
+		expectPost().andRespond(withServerError());
+		expectPost().andExpect(jsonPath("$[0].id").value(first.getId())).andRespond(withServerError());
+		// The second event of task a is never sent ahead of the first
+		expectPost().andExpect(jsonPath("$[0].id").value(other.getId())).andRespond(withSuccess());
+
+		dispatcher.dispatch();
+
+		webhook.verify();
+		assertThat(dispatchedIds()).containsExactly(other.getId());
+	}
+
+	@Test
+	void blockedTasksDoNotHoldBackLaterPages() {
+		ReflectionTestUtils.setField(dispatcher, "batchSize", 2);
+		TaskOutboxEvent waiting = event("a", 1);
+		waiting.setNextAttemptAt(Instant.now().plusSeconds(60));
+		TaskOutboxEvent behind = event("a", 0);
+		TaskOutboxEvent other = event("b", 0);
+		when(mongoTemplate.find(any(Query.class), eq(TaskOutboxEvent.class)))
+				.thenReturn(List.of(waiting, behind), List.of(other));
+		expectPost().andExpect(jsonPath("$[0].id").value(other.getId())).andRespond(withSuccess());
+
+		dispatcher.dispatch();
+
+		webhook.verify();
+		assertThat(dispatchedIds()).containsExactly(other.getId());
+		ArgumentCaptor<Query> pages = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate, times(2)).find(pages.capture(), eq(TaskOutboxEvent.class));
+		assertThat(pages.getAllValues().get(1).getQueryObject().toJson()).contains(behind.getId());
+	}
+
+	@Test
+	void eventsOfATaskLeaveInVersionOrder() {
+		// Another instance inserted the event of version 6 before this one's event of version 5
+		TaskOutboxEvent later = event("a", 0);
+		later.setTaskVersion(6L);
+		TaskOutboxEvent other = event("b", 0);
+		TaskOutboxEvent earlier = event("a", 0);
+		earlier.setTaskVersion(5L);
+		pending(List.of(later, other, earlier));
+		expectPost()
+				.andExpect(jsonPath("$[0].id").value(earlier.getId()))
+				.andExpect(jsonPath("$[1].id").value(other.getId()))
+				.andExpect(jsonPath("$[2].id").value(later.getId()))
+				.andRespond(withSuccess());
+
+		dispatcher.dispatch();
+
+		webhook.verify();
+		ArgumentCaptor<Query> page = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(page.capture(), eq(TaskOutboxEvent.class));
+		assertThat(page.getValue().getQueryObject()).containsKey("occurredAt"); // Only settled events
+	}
+
+	@Test
+	void instanceWithoutTheLeaseDoesNotDispatch() {
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(), eq(Document.class), eq("task_outbox_lease")))
+				.thenThrow(new DuplicateKeyException("held by another instance"));
+
+		dispatcher.dispatch();
+
+		verify(mongoTemplate, never()).find(any(Query.class), eq(TaskOutboxEvent.class));
+	}
+
+	@Test
+	void dispatchingStopsWhenTheLeaseIsTakenOver() {
+		TaskOutboxEvent first = event("a", 0);
+		TaskOutboxEvent second = event("b", 0);
+		pending(List.of(first, second));
+		// Renewed for the run, the batch and the first single event; gone before the second
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(), eq(Document.class), eq("task_outbox_lease")))
+				.thenReturn(null, null, null)
+				.thenThrow(new DuplicateKeyException("held by another instance"));
+		expectPost().andRespond(withServerError());
+		expectPost().andExpect(jsonPath("$[0].id").value(first.getId())).andRespond(withSuccess());
+
+		dispatcher.dispatch();
+
+		webhook.verify();
+		assertThat(dispatchedIds()).containsExactly(first.getId());
+	}
+
+	@Test
+	void webhookTimeoutsMustFitInTheLease() {
+		WebhookOutboxSink sink = new WebhookOutboxSink();
+		ReflectionTestUtils.setField(sink, "restTemplateBuilder", new RestTemplateBuilder());
+		ReflectionTestUtils.setField(sink, "timeoutMs", 15_000L);
+		ReflectionTestUtils.setField(sink, "leaseMs", 30_000L);
+
+		assertThatThrownBy(sink::init).isInstanceOf(IllegalStateException.class);
+	}
+
+	private void pending(List<TaskOutboxEvent> events) {
+		when(mongoTemplate.find(any(Query.class), eq(TaskOutboxEvent.class))).thenReturn(events);
+	}
+
+	private ResponseActions expectPost() {
+		return webhook.expect(requestTo(URL)).andExpect(method(HttpMethod.POST));
+	}
+
+	private List<Update> failureUpdates(int count) {
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate, times(count)).updateFirst(any(Query.class), updates.capture(), eq(TaskOutboxEvent.class));
+		return updates.getAllValues();
+	}
+
+	private List<Object> dispatchedIds() {
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).updateMulti(query.capture(), any(Update.class), eq(TaskOutboxEvent.class));
+		return query.getValue().getQueryObject().get("id", Document.class).getList("$in", Object.class);
+	}
+
+	private static Instant nextAttemptAt(Update update) {
+		Object value = update.getUpdateObject().get("$set", Document.class).get("nextAttemptAt");
+		return value instanceof Date ? ((Date) value).toInstant() : (Instant) value;
+	}
+
+	private static TaskOutboxEvent event(String taskId, int attempts) {
+		TaskOutboxEvent event = new TaskOutboxEvent();
+		event.setId(new ObjectId().toHexString());
+		event.setUserId("alice");
+		event.setTaskId(taskId);
+		event.setType("UPDATED");
+		event.setOccurredAt(Instant.now());
+		event.setAttempts(attempts);
+		return event;
+	}
+
+}